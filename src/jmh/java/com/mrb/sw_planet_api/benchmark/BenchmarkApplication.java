@@ -0,0 +1,39 @@
+package com.mrb.sw_planet_api.benchmark;
+
+import com.mrb.sw_planet_api.StarWarsApplication;
+import com.mrb.sw_planet_api.loadtest.LoadHarness;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Boots the application without a web server against its own in-memory H2 database, with the
+ * test profile's settings, SQL logging off and both read caches off so every call reaches the
+ * database, and seeds the planets table.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    // Passed as arguments: builder properties are only defaults, which application.properties overrides.
+    // DevTools is on the test classpath and would rerun the application in a restart class loader.
+    static ConfigurableApplicationContext start(String database) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(StarWarsApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "--planets.reactive.r2dbc.url=r2dbc:h2:mem:///" + database + "?options=DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--planets.cache.by-id.enabled=false",
+                        "--planets.cache.search.enabled=false",
+                        "--logging.level.root=WARN");
+    }
+
+    // Ids run from 1 to rows, with the load ITs' seed data
+    static void seed(ConfigurableApplicationContext context, int rows) {
+        LoadHarness.seed(context.getBean(JdbcTemplate.class), rows);
+    }
+}
@@ -0,0 +1,104 @@
+package com.mrb.sw_planet_api.benchmark;
+
+import com.mrb.sw_planet_api.model.Planet;
+import com.mrb.sw_planet_api.repository.PlanetBulkRepositoryImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second for {@code POST /planets/bulk} inserts against H2: one auto-committed
+ * INSERT per planet, as a loop of {@code POST /planets} does, against the batched
+ * {@link PlanetBulkRepositoryImpl} path in a single transaction. Read the {@code rows} counter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    @Param({"500"})
+    public int batchSize;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private PlanetBulkRepositoryImpl bulkRepository;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Inserted {
+        public long rows;
+    }
+
+    @Setup
+    public void setup() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:bulk-insert-" + rows, "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE planets (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    name VARCHAR(255) NOT NULL,
+                    climate VARCHAR(255) NOT NULL,
+                    terrain VARCHAR(255) NOT NULL)""");
+        bulkRepository = new PlanetBulkRepositoryImpl(jdbcTemplate, batchSize);
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE planets");
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public long singleInserts(Inserted inserted) throws SQLException {
+        var connection = dataSource.getConnection();
+        connection.setAutoCommit(true);
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into planets (name, climate, terrain) values (?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < rows; i++) {
+                insert.setString(1, "planet-" + i);
+                insert.setString(2, "arid");
+                insert.setString(3, "desert");
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    if (keys.next()) lastId = keys.getLong(1);
+                }
+            }
+        }
+        inserted.rows += rows;
+        return lastId;
+    }
+
+    @Benchmark
+    public long batchedInserts(Inserted inserted) throws SQLException {
+        var connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        List<Planet> planets = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            planets.add(new Planet(null, "planet-" + i, "arid", "desert"));
+        }
+        bulkRepository.insertAll(planets);
+        connection.commit();
+        connection.setAutoCommit(true);
+        inserted.rows += rows;
+        return planets.get(rows - 1).getId();
+    }
+}
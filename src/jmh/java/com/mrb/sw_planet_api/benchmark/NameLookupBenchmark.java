@@ -0,0 +1,91 @@
+package com.mrb.sw_planet_api.benchmark;
+
+import com.mrb.sw_planet_api.dto.PlanetResponse;
+import com.mrb.sw_planet_api.service.event.PlanetChangedEvent;
+import com.mrb.sw_planet_api.service.index.PlanetNameIndex;
+import org.openjdk.jmh.annotations.*;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@code /planets/name/{name}} resolution strategies as the table grows:
+ * the {@code LOWER(name) LIKE '%x%'} scan of the contains tier
+ * against a {@link PlanetNameIndex} lookup followed by a primary-key fetch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NameLookupBenchmark {
+
+    private static final String[] SYLLABLES = {"ta", "too", "ine", "ho", "th", "da", "go", "bah", "en", "dor", "na", "boo"};
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private Connection connection;
+    private PreparedStatement likeScan;
+    private PreparedStatement byId;
+    private PlanetNameIndex index;
+    private String needle;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:name-lookup-" + rows, "sa", "");
+        connection.createStatement().execute("""
+                CREATE TABLE planets (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    name VARCHAR(255) NOT NULL,
+                    climate VARCHAR(255) NOT NULL,
+                    terrain VARCHAR(255) NOT NULL)""");
+        index = new PlanetNameIndex(null, true);
+        try (var insert = connection.prepareStatement("INSERT INTO planets (name, climate, terrain) VALUES (?, 'arid', 'desert')")) {
+            for (long id = 1; id <= rows; id++) {
+                String name = nameOf(id);
+                insert.setString(1, name);
+                insert.addBatch();
+                index.onPlanetChanged(PlanetChangedEvent.created(new PlanetResponse(id, name, "arid", "desert")));
+            }
+            insert.executeBatch();
+        }
+        needle = nameOf(rows / 2).substring(1).toUpperCase();
+        likeScan = connection.prepareStatement("SELECT id, name, climate, terrain FROM planets WHERE LOWER(name) LIKE ?");
+        byId = connection.prepareStatement("SELECT id, name, climate, terrain FROM planets WHERE id = ?");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.createStatement().execute("DROP ALL OBJECTS");
+        connection.close();
+    }
+
+    @Benchmark
+    public String likeScan() throws SQLException {
+        likeScan.setString(1, "%" + needle.toLowerCase() + "%");
+        try (ResultSet rs = likeScan.executeQuery()) {
+            return rs.next() ? rs.getString(2) : null;
+        }
+    }
+
+    @Benchmark
+    public String indexedLookup() throws SQLException {
+        List<Long> ids = index.search(needle);
+        if (ids.isEmpty()) return null;
+        byId.setLong(1, ids.get(0));
+        try (ResultSet rs = byId.executeQuery()) {
+            return rs.next() ? rs.getString(2) : null;
+        }
+    }
+
+    private static String nameOf(long id) {
+        int n = SYLLABLES.length;
+        return SYLLABLES[(int) (id % n)] + SYLLABLES[(int) (id / n % n)] + "-" + id;
+    }
+}
@@ -0,0 +1,78 @@
+package com.mrb.sw_planet_api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mrb.sw_planet_api.exception.ErrorResponse;
+import com.mrb.sw_planet_api.exception.GlobalExceptionHandler;
+import com.mrb.sw_planet_api.exception.PlanetNotFoundException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Throughput of answering a request for an unknown planet, from the throw to the body bytes:
+ * {@code before} is the previous path, an exception that captures its stack trace and an
+ * {@link ErrorResponse} built and serialized by Jackson, and {@code after} is
+ * {@link PlanetNotFoundException} with {@link GlobalExceptionHandler}'s pre-rendered body.
+ * Both throw {@code depth} frames down, since capturing a trace walks the whole stack.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotFoundBenchmark {
+
+    // PlanetNotFoundException as it was before it stopped capturing stack traces
+    private static final class StackTracedNotFoundException extends RuntimeException {
+        StackTracedNotFoundException(Long id) {
+            super("Planet not found with id " + id);
+        }
+    }
+
+    @Param({"20", "150"})
+    public int depth;
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/planets/99");
+    private final ServletWebRequest webRequest = new ServletWebRequest(request);
+
+    @Benchmark
+    public byte[] before() throws Exception {
+        try {
+            throwAt(depth, () -> new StackTracedNotFoundException(99L));
+        } catch (StackTracedNotFoundException exception) {
+            var response = ErrorResponse.builder()
+                    .timestamp(Instant.now())
+                    .status(HttpStatus.NOT_FOUND.value())
+                    .path(webRequest.getDescription(false).replace("uri=", ""))
+                    .error(HttpStatus.NOT_FOUND.getReasonPhrase())
+                    .message(exception.getMessage())
+                    .build();
+            return objectMapper.writeValueAsBytes(response);
+        }
+        throw new IllegalStateException();
+    }
+
+    @Benchmark
+    public byte[] after() {
+        try {
+            throwAt(depth, () -> new PlanetNotFoundException(99L));
+        } catch (PlanetNotFoundException exception) {
+            return handler.handlePlanetNotFoundException(exception, request).getBody().getBytes(StandardCharsets.UTF_8);
+        }
+        throw new IllegalStateException();
+    }
+
+    private static void throwAt(int depth, Supplier<RuntimeException> exception) {
+        if (depth == 0) throw exception.get();
+        throwAt(depth - 1, exception);
+    }
+}
@@ -0,0 +1,62 @@
+package com.mrb.sw_planet_api.benchmark;
+
+import com.mrb.sw_planet_api.dto.PlanetResponse;
+import com.mrb.sw_planet_api.mapper.PlanetMapper;
+import com.mrb.sw_planet_api.model.Planet;
+import org.openjdk.jmh.annotations.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning entities into responses: {@link PlanetMapper#toResponse(Planet)} through the
+ * Lombok builder against the all-args constructor, and a page of planets mapped through the
+ * stream in {@link PlanetMapper#toResponse(List)} against a presized loop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlanetMapperBenchmark {
+
+    @Param({"20", "1000"})
+    public int size;
+
+    private Planet planet;
+    private List<Planet> planets;
+
+    @Setup
+    public void setup() {
+        planets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            var planet = new Planet((long) i, "Planet " + i, "arid", "desert");
+            planet.setVersion(0L);
+            planets.add(planet);
+        }
+        planet = planets.get(0);
+    }
+
+    @Benchmark
+    public PlanetResponse builder() {
+        return PlanetMapper.toResponse(planet);
+    }
+
+    @Benchmark
+    public PlanetResponse constructor() {
+        return new PlanetResponse(planet.getId(), planet.getName(), planet.getClimate(), planet.getTerrain(), planet.getVersion());
+    }
+
+    @Benchmark
+    public List<PlanetResponse> listStream() {
+        return PlanetMapper.toResponse(planets);
+    }
+
+    @Benchmark
+    public List<PlanetResponse> listLoop() {
+        List<PlanetResponse> responses = new ArrayList<>(planets.size());
+        for (Planet planet : planets) responses.add(PlanetMapper.toResponse(planet));
+        return responses;
+    }
+}
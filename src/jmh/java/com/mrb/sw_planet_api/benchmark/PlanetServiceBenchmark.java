@@ -0,0 +1,63 @@
+package com.mrb.sw_planet_api.benchmark;
+
+import com.mrb.sw_planet_api.dto.PlanetResponse;
+import com.mrb.sw_planet_api.repository.specification.MatchMode;
+import com.mrb.sw_planet_api.service.PlanetService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link PlanetService} reads against embedded H2 seeded with {@code rows} planets:
+ * {@code findById} on a random id, and the first page of a climate search with its COUNT
+ * ({@code find}) and without ({@code findSlice}). Caches are off, so each call runs its queries.
+ * Seeding a million rows takes a while and is repeated per benchmark method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PlanetServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private final Pageable firstPage = PageRequest.of(0, 20);
+
+    private ConfigurableApplicationContext context;
+    private PlanetService planetService;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start("service-" + rows);
+        BenchmarkApplication.seed(context, rows);
+        planetService = context.getBean(PlanetService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PlanetResponse findById() {
+        return planetService.findById(ThreadLocalRandom.current().nextLong(1, rows + 1));
+    }
+
+    @Benchmark
+    public Page<PlanetResponse> find() {
+        return planetService.find("arid", null, MatchMode.CONTAINS, firstPage);
+    }
+
+    @Benchmark
+    public Slice<PlanetResponse> findSlice() {
+        return planetService.findSlice("arid", null, MatchMode.CONTAINS, firstPage);
+    }
+}
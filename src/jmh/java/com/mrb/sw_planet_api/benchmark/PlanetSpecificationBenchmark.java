@@ -0,0 +1,63 @@
+package com.mrb.sw_planet_api.benchmark;
+
+import com.mrb.sw_planet_api.model.Planet;
+import com.mrb.sw_planet_api.repository.specification.MatchMode;
+import com.mrb.sw_planet_api.repository.specification.PlanetSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query building for a climate and terrain search in each {@link MatchMode}: composing the
+ * {@link PlanetSpecifications}, and composing them and rendering the criteria query Hibernate
+ * runs, which is where the patterns are built. No SQL is executed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlanetSpecificationBenchmark {
+
+    @Param({"EXACT", "CONTAINS", "ALL_TOKENS"})
+    public MatchMode match;
+
+    private final String climate = "Arid, Temperate";
+    private final String terrain = "grasslands, mountains";
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private CriteriaBuilder criteriaBuilder;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start("specifications");
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        criteriaBuilder = entityManager.getCriteriaBuilder();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public Specification<Planet> compose() {
+        return PlanetSpecifications.climateMatches(climate, match).and(PlanetSpecifications.terrainMatches(terrain, match));
+    }
+
+    @Benchmark
+    public CriteriaQuery<Planet> criteriaQuery() {
+        var spec = compose();
+        CriteriaQuery<Planet> query = criteriaBuilder.createQuery(Planet.class);
+        var root = query.from(Planet.class);
+        return query.where(spec.toPredicate(root, query, criteriaBuilder));
+    }
+}
@@ -2,8 +2,10 @@ package com.mrb.sw_planet_api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// The R2DBC pool belongs to ReactivePlanetRepository; an auto-configured ConnectionFactory would switch off the JDBC DataSource
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class StarWarsApplication {
 
 	public static void main(String[] args) {
@@ -1,27 +1,48 @@
 package com.mrb.sw_planet_api.controller;
 
+import com.mrb.sw_planet_api.dto.AffectedRowsResponse;
+import com.mrb.sw_planet_api.dto.BatchGetRequest;
+import com.mrb.sw_planet_api.dto.BatchGetResponse;
+import com.mrb.sw_planet_api.dto.BulkCreateResponse;
+import com.mrb.sw_planet_api.dto.BulkPatchRequest;
+import com.mrb.sw_planet_api.dto.CursorPageResponse;
+import com.mrb.sw_planet_api.dto.FacetCountsResponse;
+import com.mrb.sw_planet_api.dto.PlanetCursor;
 import com.mrb.sw_planet_api.dto.PlanetPatchRequest;
 import com.mrb.sw_planet_api.dto.PlanetRequest;
 import com.mrb.sw_planet_api.dto.PlanetResponse;
+import com.mrb.sw_planet_api.exception.PlanetVersionMismatchException;
+import com.mrb.sw_planet_api.repository.specification.MatchMode;
 import com.mrb.sw_planet_api.service.PlanetService;
+import com.mrb.sw_planet_api.service.cache.PlanetModificationCounter;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.net.URI;
+import java.util.List;
 import java.util.Map;
 import static org.springframework.data.domain.Sort.Direction.ASC;
 import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.MULTI_STATUS;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
 import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.util.StringUtils.hasText;
 
 @RestController
 @RequestMapping("/planets")
@@ -29,7 +50,19 @@ import static org.springframework.http.HttpStatus.OK;
 @Validated
 public class PlanetController {
 
+    public static final String APPROXIMATE_TOTAL_HEADER = "X-Approximate-Total-Count";
+
     private final PlanetService service;
+    private final PlanetModificationCounter modifications;
+
+    @Value("${planets.search.count:true}")
+    private boolean countByDefault;
+
+    @Value("${planets.http.cache-control.planet:no-cache}")
+    private String planetCacheControl;
+
+    @Value("${planets.http.cache-control.search:no-cache}")
+    private String searchCacheControl;
 
     @PostMapping(
             consumes = MediaType.APPLICATION_JSON_VALUE,
@@ -39,13 +72,38 @@ public class PlanetController {
         URI location = URI.create("/planets/" + planet.getId());
         return ResponseEntity.status(CREATED)
                 .header(HttpHeaders.LOCATION, location.toString())
+                .eTag(etag(planet))
                 .body(planet);
     }
 
+    // Items are validated one by one: 201 when all were created, 207 with per-item results otherwise
+    @PostMapping(
+            value = "/bulk",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkCreateResponse> createPlanets(@RequestBody @NotNull @Size(min = 1, max = 10_000) List<PlanetRequest> requests) {
+        var result = service.createAll(requests);
+        return ResponseEntity.status(result.failed() == 0 ? CREATED : MULTI_STATUS).body(result);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<PlanetResponse> findPlanetById(@PathVariable @Min(1) Long id) {
+    public ResponseEntity<PlanetResponse> findPlanetById(@PathVariable @Min(1) Long id, WebRequest request) {
         var planet = service.findById(id);
-        return ResponseEntity.status(OK).body(planet);
+        String etag = etag(planet);
+        if (etag != null && request.checkNotModified(etag)) {
+            return cacheable(NOT_MODIFIED, etag, planetCacheControl).build();
+        }
+        return cacheable(OK, etag, planetCacheControl).body(planet);
+    }
+
+    // POST so thousands of ids fit in the body rather than the query string
+    @PostMapping(
+            value = "/batch-get",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchGetResponse> findPlanetsById(@RequestBody @Valid BatchGetRequest request) {
+        var planets = service.findAllById(request.ids());
+        return ResponseEntity.status(OK).body(planets);
     }
 
     @GetMapping("name/{name}")
@@ -54,12 +112,59 @@ public class PlanetController {
         return ResponseEntity.status(OK).body(planet);
     }
 
+    @GetMapping("name/{name}/matches")
+    public ResponseEntity<Page<PlanetResponse>> findPlanetsByName(
+            @PathVariable @NotBlank String name,
+            @PageableDefault(page = 0, size = 15) Pageable pageable) {
+        var planets = service.findMatches(name, pageable);
+        return ResponseEntity.status(OK).body(planets);
+    }
+
+    // count=false answers with a Slice (hasNext only) and skips the COUNT query
     @GetMapping("/search")
-    public ResponseEntity<Page<PlanetResponse>> findPlanets(
+    public ResponseEntity<Slice<PlanetResponse>> findPlanets(
             @PageableDefault(page = 0, size = 15, sort = "name", direction = ASC) Pageable pageable,
-            @RequestParam(required = false) String climate, @RequestParam(required = false) String terrain) {
-        var planets = service.find(climate, terrain, pageable);
-        return ResponseEntity.status(OK).body(planets);
+            @RequestParam(required = false) String climate, @RequestParam(required = false) String terrain,
+            @RequestParam(defaultValue = "CONTAINS") MatchMode match,
+            @RequestParam(required = false) Boolean count, @RequestParam(defaultValue = "false") boolean approximateTotal,
+            WebRequest request) {
+        String etag = searchETag();
+        if (request.checkNotModified(etag)) {
+            return cacheable(NOT_MODIFIED, etag, searchCacheControl).build();
+        }
+        if (count == null ? countByDefault : count) {
+            var planets = service.find(climate, terrain, match, pageable);
+            return cacheable(OK, etag, searchCacheControl).body(planets);
+        }
+        var planets = service.findSlice(climate, terrain, match, pageable);
+        var response = cacheable(OK, etag, searchCacheControl);
+        if (approximateTotal) {
+            response.header(APPROXIMATE_TOTAL_HEADER, String.valueOf(service.approximateCount(climate, terrain, match)));
+        }
+        return response.body(planets);
+    }
+
+    // Cursor mode: any request carrying "cursor" (empty for the first page) pages on (name, id) without COUNT or OFFSET
+    @GetMapping(value = "/search", params = "cursor")
+    public ResponseEntity<CursorPageResponse<PlanetResponse>> findPlanetsByCursor(
+            @RequestParam String cursor, @RequestParam(defaultValue = "15") @Min(1) @Max(1000) int size,
+            @RequestParam(required = false) String climate, @RequestParam(required = false) String terrain,
+            @RequestParam(defaultValue = "CONTAINS") MatchMode match, WebRequest request) {
+        var position = PlanetCursor.decode(cursor);
+        String etag = searchETag();
+        if (request.checkNotModified(etag)) {
+            return cacheable(NOT_MODIFIED, etag, searchCacheControl).build();
+        }
+        var planets = service.find(climate, terrain, match, position, size);
+        return cacheable(OK, etag, searchCacheControl).body(CursorPageResponse.of(planets));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<FacetCountsResponse> findFacetCounts(
+            @RequestParam(required = false) String climate, @RequestParam(required = false) String terrain,
+            @RequestParam(defaultValue = "CONTAINS") MatchMode match) {
+        var counts = service.facetCounts(climate, terrain, match);
+        return ResponseEntity.status(OK).body(counts);
     }
 
     @DeleteMapping("/{id}")
@@ -68,17 +173,68 @@ public class PlanetController {
         return ResponseEntity.status(OK).body(message);
     }
 
+    // Set-based delete by ids, or else by the search filters; one of the two is required
+    @DeleteMapping
+    public ResponseEntity<AffectedRowsResponse> deletePlanets(
+            @RequestParam(required = false) @Size(max = 5_000) List<Long> ids,
+            @RequestParam(required = false) String climate, @RequestParam(required = false) String terrain,
+            @RequestParam(defaultValue = "CONTAINS") MatchMode match) {
+        int affected = (ids != null && !ids.isEmpty())
+                ? service.deleteAll(ids)
+                : service.deleteAll(climate, terrain, match);
+        return ResponseEntity.status(OK).body(new AffectedRowsResponse(affected));
+    }
+
+    @PatchMapping(
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<AffectedRowsResponse> partialUpdatePlanets(@RequestBody @Valid BulkPatchRequest request) {
+        int affected = service.patchAll(request.ids(), request.changes());
+        return ResponseEntity.status(OK).body(new AffectedRowsResponse(affected));
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<PlanetResponse> partialUpdatePlanet(@PathVariable @Min(1) Long id,
-                                                              @RequestBody @Valid @NotNull PlanetPatchRequest request) {
-        var planet = service.patch(id, request);
-        return ResponseEntity.status(OK).body(planet);
+                                                              @RequestBody @Valid @NotNull PlanetPatchRequest request,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var planet = service.patch(id, request, expectedVersion(id, ifMatch));
+        return ResponseEntity.status(OK).eTag(etag(planet)).body(planet);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<PlanetResponse> updatePlanet(@PathVariable @Min(1) Long id,
-                                                       @RequestBody @Valid @NotNull PlanetRequest request) {
-        var planet = service.update(id, request);
-        return ResponseEntity.status(OK).body(planet);
+                                                       @RequestBody @Valid @NotNull PlanetRequest request,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var planet = service.update(id, request, expectedVersion(id, ifMatch));
+        return ResponseEntity.status(OK).eTag(etag(planet)).body(planet);
+    }
+
+    // 304s carry the same validator and Cache-Control as the 200 they stand for
+    private static ResponseEntity.BodyBuilder cacheable(HttpStatus status, String etag, String cacheControl) {
+        var builder = ResponseEntity.status(status).eTag(etag);
+        if (hasText(cacheControl)) builder.header(HttpHeaders.CACHE_CONTROL, cacheControl);
+        return builder;
+    }
+
+    // Weak: it says the results are unchanged, not that the bytes are; read before the query so a racing write makes it stale
+    private String searchETag() {
+        return "W/\"" + modifications.current() + "\"";
+    }
+
+    // Strong ETag carrying the row version; null when the version is not known
+    private static String etag(PlanetResponse planet) {
+        return planet.getVersion() == null ? null : "\"" + planet.getVersion() + "\"";
+    }
+
+    // No If-Match (or "*") means an unconditional write; weak or foreign tags can never match a strong one
+    private static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) throw new PlanetVersionMismatchException(id);
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException exception) {
+            throw new PlanetVersionMismatchException(id);
+        }
     }
 }
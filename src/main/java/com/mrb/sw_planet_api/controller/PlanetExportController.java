@@ -0,0 +1,32 @@
+package com.mrb.sw_planet_api.controller;
+
+import com.mrb.sw_planet_api.service.exporter.ExportFormat;
+import com.mrb.sw_planet_api.service.exporter.PlanetExporter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import static org.springframework.http.HttpStatus.OK;
+
+@RestController
+@RequestMapping("/planets/export")
+@RequiredArgsConstructor
+public class PlanetExportController {
+
+    private final PlanetExporter exporter;
+
+    // Streams the whole table in one response on an async thread, see spring.mvc.async.request-timeout
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportPlanets(@RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return ResponseEntity.status(OK)
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("planets." + format.extension()).build().toString())
+                .body(out -> exporter.export(format, out));
+    }
+}
@@ -0,0 +1,48 @@
+package com.mrb.sw_planet_api.controller;
+
+import com.mrb.sw_planet_api.dto.ImportJobResponse;
+import com.mrb.sw_planet_api.service.importer.ImportJob;
+import com.mrb.sw_planet_api.service.importer.PlanetImporter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.io.InputStream;
+import java.util.Comparator;
+import java.util.List;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.OK;
+
+@RestController
+@RequestMapping("/planets/import")
+@RequiredArgsConstructor
+public class PlanetImportController {
+
+    private final PlanetImporter importer;
+
+    // Runs the import within the request; GET /planets/import shows the progress of running jobs meanwhile
+    @PostMapping(
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportJobResponse> importPlanets(InputStream body) {
+        var job = importer.importPlanets(body);
+        return ResponseEntity.status(job.getStatus() == ImportJob.Status.FAILED ? BAD_REQUEST : OK)
+                .header(HttpHeaders.LOCATION, "/planets/import/" + job.getId())
+                .body(ImportJobResponse.of(job));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ImportJobResponse>> findImportJobs() {
+        var jobs = importer.findAll().stream()
+                .sorted(Comparator.comparing(ImportJob::getStartedAt).reversed())
+                .map(ImportJobResponse::of)
+                .toList();
+        return ResponseEntity.status(OK).body(jobs);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobResponse> findImportJob(@PathVariable String id) {
+        return ResponseEntity.status(OK).body(ImportJobResponse.of(importer.find(id)));
+    }
+}
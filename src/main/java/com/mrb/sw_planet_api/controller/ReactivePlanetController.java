@@ -0,0 +1,79 @@
+package com.mrb.sw_planet_api.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mrb.sw_planet_api.dto.PlanetResponse;
+import com.mrb.sw_planet_api.repository.specification.MatchMode;
+import com.mrb.sw_planet_api.service.reactive.ReactivePlanetService;
+import jakarta.validation.constraints.Min;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.io.UncheckedIOException;
+import static org.springframework.data.domain.Sort.Direction.ASC;
+
+/**
+ * Non-blocking reads backed by R2DBC. The request thread is released as soon as the handler
+ * returns and the response is written as rows arrive.
+ */
+@RestController
+@RequestMapping("/reactive/planets")
+@Validated
+public class ReactivePlanetController {
+
+    private final ReactivePlanetService service;
+    // Stream items must stay on one line whatever indentation the shared mapper is configured with
+    private final ObjectWriter lineWriter;
+
+    public ReactivePlanetController(ReactivePlanetService service, ObjectMapper objectMapper) {
+        this.service = service;
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<PlanetResponse> findPlanetById(@PathVariable @Min(1) Long id) {
+        return service.findById(id);
+    }
+
+    @GetMapping("/search")
+    public Mono<Slice<PlanetResponse>> findPlanets(
+            @PageableDefault(page = 0, size = 15, sort = "name", direction = ASC) Pageable pageable,
+            @RequestParam(required = false) String climate, @RequestParam(required = false) String terrain,
+            @RequestParam(defaultValue = "CONTAINS") MatchMode match) {
+        return service.findSlice(climate, terrain, match, pageable);
+    }
+
+    // Each planet is written as its own NDJSON line or SSE event; the next row is requested once it is flushed
+    @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<String> streamPlanets(
+            @RequestParam(required = false) String climate, @RequestParam(required = false) String terrain,
+            @RequestParam(defaultValue = "CONTAINS") MatchMode match) {
+        return service.stream(climate, terrain, match).map(planet -> toLine(planet) + "\n");
+    }
+
+    @GetMapping(value = "/search/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<String> streamPlanetEvents(
+            @RequestParam(required = false) String climate, @RequestParam(required = false) String terrain,
+            @RequestParam(defaultValue = "CONTAINS") MatchMode match) {
+        return service.stream(climate, terrain, match).map(this::toLine);
+    }
+
+    private String toLine(PlanetResponse planet) {
+        try {
+            return lineWriter.writeValueAsString(planet);
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
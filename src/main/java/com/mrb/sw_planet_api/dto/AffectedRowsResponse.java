@@ -0,0 +1,4 @@
+package com.mrb.sw_planet_api.dto;
+
+public record AffectedRowsResponse(int affected) {
+}
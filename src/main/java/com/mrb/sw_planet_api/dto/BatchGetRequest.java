@@ -0,0 +1,9 @@
+package com.mrb.sw_planet_api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record BatchGetRequest(@NotEmpty @Size(max = 5_000) List<@NotNull Long> ids) {
+}
@@ -0,0 +1,9 @@
+package com.mrb.sw_planet_api.dto;
+
+import java.util.List;
+
+/**
+ * Planets found for a batch get, in request order, and the requested ids that do not exist.
+ */
+public record BatchGetResponse(List<PlanetResponse> planets, List<Long> missing) {
+}
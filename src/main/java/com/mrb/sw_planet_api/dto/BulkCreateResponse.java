@@ -0,0 +1,11 @@
+package com.mrb.sw_planet_api.dto;
+
+import java.util.List;
+
+public record BulkCreateResponse(int created, int failed, List<BulkItemResult> items) {
+
+    public static BulkCreateResponse of(List<BulkItemResult> items) {
+        int created = (int) items.stream().filter(item -> item.planet() != null).count();
+        return new BulkCreateResponse(created, items.size() - created, items);
+    }
+}
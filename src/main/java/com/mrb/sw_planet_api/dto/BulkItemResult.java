@@ -0,0 +1,18 @@
+package com.mrb.sw_planet_api.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of one item of a bulk request, identified by its position in the request array.
+ */
+public record BulkItemResult(int index, int status, PlanetResponse planet, Map<String, List<String>> errors) {
+
+    public static BulkItemResult created(int index, PlanetResponse planet) {
+        return new BulkItemResult(index, 201, planet, null);
+    }
+
+    public static BulkItemResult invalid(int index, Map<String, List<String>> errors) {
+        return new BulkItemResult(index, 400, null, errors);
+    }
+}
@@ -0,0 +1,14 @@
+package com.mrb.sw_planet_api.dto;
+
+import org.springframework.data.domain.Slice;
+import java.util.List;
+
+public record CursorPageResponse<T>(List<T> content, int size, boolean hasNext, String nextCursor) {
+
+    public static CursorPageResponse<PlanetResponse> of(Slice<PlanetResponse> slice) {
+        String next = slice.hasNext() && slice.hasContent()
+                ? PlanetCursor.after(slice.getContent().get(slice.getNumberOfElements() - 1)).encode()
+                : null;
+        return new CursorPageResponse<>(slice.getContent(), slice.getSize(), slice.hasNext(), next);
+    }
+}
@@ -0,0 +1,25 @@
+package com.mrb.sw_planet_api.dto;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Planet counts per climate and terrain token, most frequent first.
+ */
+public record FacetCountsResponse(Map<String, Long> climate, Map<String, Long> terrain) {
+
+    public FacetCountsResponse {
+        climate = ordered(climate);
+        terrain = ordered(terrain);
+    }
+
+    private static Map<String, Long> ordered(Map<String, Long> counts) {
+        Map<String, Long> ordered = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> ordered.put(entry.getKey(), entry.getValue()));
+        return ordered;
+    }
+}
@@ -0,0 +1,14 @@
+package com.mrb.sw_planet_api.dto;
+
+import com.mrb.sw_planet_api.service.importer.ImportJob;
+import java.time.Instant;
+import java.util.List;
+
+public record ImportJobResponse(String id, ImportJob.Status status, long lines, long imported, long failed,
+                                List<ImportJob.LineError> errors, String message, Instant startedAt, Instant finishedAt) {
+
+    public static ImportJobResponse of(ImportJob job) {
+        return new ImportJobResponse(job.getId(), job.getStatus(), job.getLines().get(), job.getImported().get(),
+                job.getFailed().get(), job.getErrors(), job.getMessage(), job.getStartedAt(), job.getFinishedAt());
+    }
+}
@@ -0,0 +1,35 @@
+package com.mrb.sw_planet_api.dto;
+
+import com.mrb.sw_planet_api.exception.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position on {@code (name, id)} for cursor pagination, exchanged with clients
+ * as an opaque base64url token.
+ */
+public record PlanetCursor(String name, Long id) {
+
+    public static PlanetCursor after(PlanetResponse planet) {
+        return new PlanetCursor(planet.getName(), planet.getId());
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((id + ":" + name).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for a blank token, meaning the first page.
+     */
+    public static PlanetCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new PlanetCursor(raw.substring(separator + 1), Long.valueOf(raw.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException exception) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.mrb.sw_planet_api.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import org.springframework.hateoas.server.core.Relation;
 
@@ -13,4 +15,12 @@ public class PlanetResponse {
     private final String name;
     private final String climate;
     private final String terrain;
+    // sent as the ETag header, not in the body
+    @JsonIgnore
+    private final Long version;
+
+    @JsonCreator
+    public PlanetResponse(Long id, String name, String climate, String terrain) {
+        this(id, name, climate, terrain, null);
+    }
 }
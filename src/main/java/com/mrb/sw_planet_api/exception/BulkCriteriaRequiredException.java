@@ -0,0 +1,7 @@
+package com.mrb.sw_planet_api.exception;
+
+public class BulkCriteriaRequiredException extends StacklessException {
+    public BulkCriteriaRequiredException() {
+        super("Bulk delete needs ids or a climate/terrain filter");
+    }
+}
@@ -1,22 +1,28 @@
 package com.mrb.sw_planet_api.exception;
 
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.context.request.WebRequest;
 import java.nio.file.AccessDeniedException;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -26,6 +32,14 @@ import static org.springframework.http.HttpStatus.*;
 @Order(Ordered.HIGHEST_PRECEDENCE)
 public class GlobalExceptionHandler {
 
+    // 404s for unknown planets are mostly probing clients, so their body is written from fixed fragments in
+    // ErrorResponse's field order instead of going through the builder and Jackson; only the values vary
+    private static final String NOT_FOUND_TIMESTAMP = "{\"timestamp\":\"";
+    private static final String NOT_FOUND_PATH = "\",\"status\":" + NOT_FOUND.value()
+            + ",\"error\":\"" + NOT_FOUND.getReasonPhrase() + "\",\"path\":\"";
+    private static final String NOT_FOUND_MESSAGE = "\",\"message\":\"";
+    private static final String NOT_FOUND_END = "\"}";
+
     private ErrorResponse buildError(HttpStatus status, String message, Map<String, List<String>> fieldErrors, WebRequest request) {
         return ErrorResponse.builder()
                 .timestamp(Instant.now())
@@ -81,11 +95,59 @@ public class GlobalExceptionHandler {
     }
 
     @ExceptionHandler(PlanetNotFoundException.class)
-    public ResponseEntity<ErrorResponse> handlePlanetNotFoundException(PlanetNotFoundException exception, WebRequest request) {
+    public ResponseEntity<String> handlePlanetNotFoundException(PlanetNotFoundException exception, HttpServletRequest request) {
+        var json = JsonStringEncoder.getInstance();
+        var body = new StringBuilder(160)
+                .append(NOT_FOUND_TIMESTAMP).append(Instant.now())
+                .append(NOT_FOUND_PATH).append(json.quoteAsString(request.getRequestURI()))
+                .append(NOT_FOUND_MESSAGE).append(json.quoteAsString(exception.getMessage()))
+                .append(NOT_FOUND_END);
+        return ResponseEntity.status(NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(body.toString());
+    }
+
+    @ExceptionHandler(ImportJobNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleImportJobNotFoundException(ImportJobNotFoundException exception, WebRequest request) {
         var response = buildError(NOT_FOUND, exception.getMessage(), null, request);
         return ResponseEntity.status(NOT_FOUND).body(response);
     }
 
+    @ExceptionHandler(PlanetVersionMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleVersionMismatch(PlanetVersionMismatchException exception, WebRequest request) {
+        var response = buildError(PRECONDITION_FAILED, exception.getMessage(), null, request);
+        return ResponseEntity.status(PRECONDITION_FAILED).body(response);
+    }
+
+    // A concurrent write without If-Match: there was no precondition to fail, the writes conflicted
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException exception, WebRequest request) {
+        var response = buildError(CONFLICT, exception.getMessage(), null, request);
+        return ResponseEntity.status(CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(BulkCriteriaRequiredException.class)
+    public ResponseEntity<ErrorResponse> handleBulkCriteriaRequiredException(BulkCriteriaRequiredException exception, WebRequest request) {
+        var response = buildError(BAD_REQUEST, exception.getMessage(), null, request);
+        return ResponseEntity.status(BAD_REQUEST).body(response);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursorException(InvalidCursorException exception, WebRequest request) {
+        var response = buildError(BAD_REQUEST, exception.getMessage(), null, request);
+        return ResponseEntity.status(BAD_REQUEST).body(response);
+    }
+
+    // A query or path parameter that does not convert, such as ?match=foo; enum parameters list their accepted values
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException exception, WebRequest request) {
+        var type = exception.getRequiredType();
+        var error = (type != null && type.isEnum())
+                ? "must be one of " + Arrays.stream(type.getEnumConstants()).map(Object::toString).collect(Collectors.joining(", "))
+                : "must be a valid " + (type == null ? "value" : type.getSimpleName());
+        var message = "Invalid value '" + exception.getValue() + "' for parameter '" + exception.getName() + "'";
+        var response = buildError(BAD_REQUEST, message, Map.of(exception.getName(), List.of(error)), request);
+        return ResponseEntity.status(BAD_REQUEST).body(response);
+    }
+
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ErrorResponse> handleHttpMessageNotReadableException(HttpMessageNotReadableException exception, WebRequest request) {
         var response = buildError(BAD_REQUEST, exception.getMessage(), null, request);
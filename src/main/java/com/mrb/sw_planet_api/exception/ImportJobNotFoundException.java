@@ -0,0 +1,7 @@
+package com.mrb.sw_planet_api.exception;
+
+public class ImportJobNotFoundException extends StacklessException {
+    public ImportJobNotFoundException(String id) {
+        super("Import job not found with id " + id);
+    }
+}
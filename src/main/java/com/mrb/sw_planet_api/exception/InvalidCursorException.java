@@ -0,0 +1,7 @@
+package com.mrb.sw_planet_api.exception;
+
+public class InvalidCursorException extends StacklessException {
+    public InvalidCursorException(String cursor) {
+        super("Invalid cursor " + cursor);
+    }
+}
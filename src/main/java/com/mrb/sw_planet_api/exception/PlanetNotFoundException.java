@@ -1,6 +1,6 @@
 package com.mrb.sw_planet_api.exception;
 
-public class PlanetNotFoundException extends RuntimeException {
+public class PlanetNotFoundException extends StacklessException {
     public PlanetNotFoundException(Long id) {
         super("Planet not found with id " + id);
     }
@@ -0,0 +1,7 @@
+package com.mrb.sw_planet_api.exception;
+
+public class PlanetVersionMismatchException extends StacklessException {
+    public PlanetVersionMismatchException(Long id) {
+        super("Planet with id " + id + " was modified, If-Match does not match its current version");
+    }
+}
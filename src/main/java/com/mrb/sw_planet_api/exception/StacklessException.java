@@ -0,0 +1,12 @@
+package com.mrb.sw_planet_api.exception;
+
+/**
+ * Base for the domain exceptions that {@link GlobalExceptionHandler} turns into 4xx responses.
+ * They are expected outcomes of client input, never logged with a trace, so the stack trace is
+ * not captured and throwing one costs about as much as allocating it.
+ */
+public abstract class StacklessException extends RuntimeException {
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+}
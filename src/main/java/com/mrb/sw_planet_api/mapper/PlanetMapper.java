@@ -13,6 +13,7 @@ public class PlanetMapper {
                 .name(planet.getName())
                 .climate(planet.getClimate())
                 .terrain(planet.getTerrain())
+                .version(planet.getVersion())
                 .build();
     }
 
@@ -0,0 +1,23 @@
+package com.mrb.sw_planet_api.model;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Splits SWAPI-style list values such as "arid, temperate" into lowercased facet tokens.
+ */
+public final class FacetTokens {
+
+    private FacetTokens() {}
+
+    public static Set<String> of(String value) {
+        if (value == null) return Set.of();
+        return Arrays.stream(value.split(","))
+                .map(token -> token.trim().toLowerCase(Locale.ROOT))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
@@ -2,14 +2,21 @@ package com.mrb.sw_planet_api.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
-@Table(name = "planets")
+@Table(name = "planets", indexes = {
+        @Index(name = "idx_planets_name", columnList = "name"),
+        @Index(name = "idx_planets_name_normalized", columnList = "name_normalized"),
+        @Index(name = "idx_planets_climate_normalized", columnList = "climate_normalized"),
+        @Index(name = "idx_planets_terrain_normalized", columnList = "terrain_normalized")})
 @Getter @Setter
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@DynamicUpdate
 public class Planet {
 
     @Id
@@ -25,4 +32,33 @@ public class Planet {
 
     @Column(nullable = false)
     private String terrain;
+
+//    Search columns computed by the database, so existing rows are backfilled when the column is added
+    @Setter(AccessLevel.NONE)
+    @Column(name = "name_normalized", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(name))")
+    private String nameNormalized;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "climate_normalized", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(trim(climate)))")
+    private String climateNormalized;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "terrain_normalized", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(trim(terrain)))")
+    private String terrainNormalized;
+
+//    Optimistic lock, exposed as the ETag; the default covers rows inserted outside JPA
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    public Planet(Long id, String name, String climate, String terrain) {
+        this.id = id;
+        this.name = name;
+        this.climate = climate;
+        this.terrain = terrain;
+    }
 }
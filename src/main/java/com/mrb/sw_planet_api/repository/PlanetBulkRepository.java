@@ -0,0 +1,12 @@
+package com.mrb.sw_planet_api.repository;
+
+import com.mrb.sw_planet_api.model.Planet;
+import java.util.List;
+
+public interface PlanetBulkRepository {
+
+    /**
+     * Inserts every planet with batched JDBC statements and sets the generated ids on them.
+     */
+    List<Planet> insertAll(List<Planet> planets);
+}
@@ -0,0 +1,60 @@
+package com.mrb.sw_planet_api.repository;
+
+import com.mrb.sw_planet_api.model.Planet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Plain JDBC batch insert: {@code Planet.id} is an IDENTITY column, which stops Hibernate from
+ * batching, but the driver can still send a batch and return the generated keys for it.
+ * On MySQL add {@code rewriteBatchedStatements=true} to the URL so a batch becomes one multi-row INSERT.
+ */
+public class PlanetBulkRepositoryImpl implements PlanetBulkRepository {
+
+    private static final String INSERT = "insert into planets (name, climate, terrain) values (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public PlanetBulkRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                    @Value("${planets.bulk.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public List<Planet> insertAll(List<Planet> planets) {
+        for (int from = 0; from < planets.size(); from += batchSize) {
+            insertBatch(planets.subList(from, Math.min(from + batchSize, planets.size())));
+        }
+        return planets;
+    }
+
+    private void insertBatch(List<Planet> batch) {
+        var keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        var planet = batch.get(i);
+                        statement.setString(1, planet.getName());
+                        statement.setString(2, planet.getClimate());
+                        statement.setString(3, planet.getTerrain());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                }, keys);
+        var generated = keys.getKeyList();
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).setId(((Number) generated.get(i).values().iterator().next()).longValue());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.mrb.sw_planet_api.repository;
+
+import com.mrb.sw_planet_api.model.Planet;
+import com.mrb.sw_planet_api.repository.projection.PlanetFacetCount;
+import org.springframework.data.jpa.domain.Specification;
+import java.util.List;
+
+public interface PlanetFacetRepository {
+
+    /**
+     * Counts the planets matching {@code filter}, or all planets when it is null, grouped by their
+     * climate and terrain values: one row per distinct pair however many planets share it.
+     */
+    List<PlanetFacetCount> countFacets(Specification<Planet> filter);
+}
@@ -0,0 +1,29 @@
+package com.mrb.sw_planet_api.repository;
+
+import com.mrb.sw_planet_api.model.Planet;
+import com.mrb.sw_planet_api.model.Planet_;
+import com.mrb.sw_planet_api.repository.projection.PlanetFacetCount;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.jpa.domain.Specification;
+import java.util.List;
+
+// Criteria rather than JPQL so the same Specification filters as the search apply; grouping on the normalized
+// columns folds values differing only in case or padding, which tokenize the same anyway
+public class PlanetFacetRepositoryImpl implements PlanetFacetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PlanetFacetCount> countFacets(Specification<Planet> filter) {
+        var builder = entityManager.getCriteriaBuilder();
+        var query = builder.createQuery(PlanetFacetCount.class);
+        var planet = query.from(Planet.class);
+        query.select(builder.construct(PlanetFacetCount.class,
+                        planet.get(Planet_.climateNormalized), planet.get(Planet_.terrainNormalized), builder.count(planet)))
+                .groupBy(planet.get(Planet_.climateNormalized), planet.get(Planet_.terrainNormalized));
+        if (filter != null) query.where(filter.toPredicate(planet, query, builder));
+        return entityManager.createQuery(query).getResultList();
+    }
+}
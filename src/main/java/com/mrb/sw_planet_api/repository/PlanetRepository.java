@@ -1,12 +1,75 @@
 package com.mrb.sw_planet_api.repository;
 
 import com.mrb.sw_planet_api.model.Planet;
+import com.mrb.sw_planet_api.repository.projection.PlanetFacetView;
+import com.mrb.sw_planet_api.repository.projection.PlanetNameView;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface PlanetRepository extends JpaRepository<Planet, Long>, JpaSpecificationExecutor<Planet> {
-    Optional<Planet> findByNameContainingIgnoreCase(String name);
+public interface PlanetRepository extends JpaRepository<Planet, Long>, JpaSpecificationExecutor<Planet>, PlanetBulkRepository,
+        PlanetFacetRepository {
+    // Case-insensitive exact match, as /matches and the name index rank it; takes a lowercased name
+    Optional<Planet> findFirstByNameNormalizedOrderByIdAsc(String nameNormalized);
+
+    Optional<Planet> findFirstByNameStartingWithIgnoreCaseOrderByNameAscIdAsc(String name);
+
+    Optional<Planet> findFirstByNameContainingIgnoreCaseOrderByNameAscIdAsc(String name);
+
+    // exact, prefix and contains are lowercased LIKE patterns escaped with '!'; the total is countByNameLike
+    @Query("""
+            select p from Planet p
+            where lower(p.name) like :contains escape '!'
+            order by case when lower(p.name) = :exact then 0
+                          when lower(p.name) like :prefix escape '!' then 1
+                          else 2 end, p.name, p.id""")
+    List<Planet> findRankedByName(String exact, String prefix, String contains, Pageable pageable);
+
+    @Query("select count(p) from Planet p where lower(p.name) like :contains escape '!'")
+    long countByNameLike(String contains);
+
+    List<PlanetNameView> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<PlanetFacetView> findFacetsByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Set-based writes: one statement per call, no entity is loaded, so callers handle caches and events
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Planet p where p.id in :ids")
+    int deleteAllByIds(Collection<Long> ids);
+
+    // null leaves a column unchanged
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Planet p
+            set p.name = coalesce(:name, p.name),
+                p.climate = coalesce(:climate, p.climate),
+                p.terrain = coalesce(:terrain, p.terrain),
+                p.version = p.version + 1
+            where p.id in :ids""")
+    int patchAllByIds(Collection<Long> ids, String name, String climate, String terrain);
+
+    // A null version skips the optimistic check; either way the version is bumped
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Planet p
+            set p.name = :name, p.climate = :climate, p.terrain = :terrain, p.version = p.version + 1
+            where p.id = :id and (:version is null or p.version = :version)""")
+    int updateById(Long id, Long version, String name, String climate, String terrain);
+
+    // Forward-only read of the whole table; must be consumed, and closed, inside a transaction
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<Planet> streamAllByOrderByIdAsc();
 }
@@ -0,0 +1,7 @@
+package com.mrb.sw_planet_api.repository.projection;
+
+/**
+ * Number of planets sharing one normalized climate and terrain value pair, not yet split into tokens.
+ */
+public record PlanetFacetCount(String climate, String terrain, long planets) {
+}
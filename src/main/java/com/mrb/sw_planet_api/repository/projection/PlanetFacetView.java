@@ -0,0 +1,7 @@
+package com.mrb.sw_planet_api.repository.projection;
+
+public interface PlanetFacetView {
+    Long getId();
+    String getClimate();
+    String getTerrain();
+}
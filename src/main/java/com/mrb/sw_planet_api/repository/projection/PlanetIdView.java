@@ -0,0 +1,5 @@
+package com.mrb.sw_planet_api.repository.projection;
+
+public interface PlanetIdView {
+    Long getId();
+}
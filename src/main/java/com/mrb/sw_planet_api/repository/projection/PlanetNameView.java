@@ -0,0 +1,6 @@
+package com.mrb.sw_planet_api.repository.projection;
+
+public interface PlanetNameView {
+    Long getId();
+    String getName();
+}
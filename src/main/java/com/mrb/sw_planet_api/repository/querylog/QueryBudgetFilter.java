@@ -0,0 +1,48 @@
+package com.mrb.sw_planet_api.repository.querylog;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+
+/**
+ * Resets the per-thread statement count before each request and, once it completes, logs a
+ * warning under {@code planets.sql.budget} when the request ran more statements than the budget,
+ * which is how N+1 patterns show up. Work handed to other threads, such as export streaming, is
+ * not counted against the request.
+ */
+@Component
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger("planets.sql.budget");
+
+    private final long budget;
+
+    public QueryBudgetFilter(@Value("${planets.sql.request-budget:10}") long budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCountHolder.clear();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            var count = QueryCountHolder.get(QueryLoggingDataSourcePostProcessor.DATA_SOURCE_NAME);
+            if (count != null && count.getTotal() > budget) {
+                log.warn("{} {} ran {} statements over a budget of {} (select={}, insert={}, update={}, delete={}, other={}, {} ms)",
+                        request.getMethod(), request.getRequestURI(), count.getTotal(), budget, count.getSelect(),
+                        count.getInsert(), count.getUpdate(), count.getDelete(), count.getOther(), count.getTime());
+            }
+            QueryCountHolder.clear();
+        }
+    }
+}
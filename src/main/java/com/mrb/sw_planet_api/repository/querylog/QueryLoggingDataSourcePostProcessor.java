@@ -0,0 +1,57 @@
+package com.mrb.sw_planet_api.repository.querylog;
+
+import net.ttddyy.dsproxy.listener.logging.DefaultJsonQueryLogEntryCreator;
+import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
+import net.ttddyy.dsproxy.listener.logging.SLF4JQueryLoggingListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps the JDBC {@link DataSource} in a datasource-proxy that counts statements per thread in
+ * {@code QueryCountHolder}, logs statements slower than the threshold with their bound parameters
+ * as JSON under {@code planets.sql.slow}, and logs a sampled share of all statements under
+ * {@code planets.sql}. Replaces {@code spring.jpa.show-sql}, which printed every statement.
+ */
+@Component
+@ConditionalOnProperty(name = "planets.sql.proxy.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryLoggingDataSourcePostProcessor implements BeanPostProcessor {
+
+    static final String DATA_SOURCE_NAME = "planets";
+
+    private final Duration slowQueryThreshold;
+    private final double sampleRate;
+
+    public QueryLoggingDataSourcePostProcessor(@Value("${planets.sql.slow-query-threshold:200ms}") Duration slowQueryThreshold,
+                                               @Value("${planets.sql.log.sample-rate:0}") double sampleRate) {
+        this.slowQueryThreshold = slowQueryThreshold;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) return bean;
+        var builder = ProxyDataSourceBuilder.create(DATA_SOURCE_NAME, dataSource)
+                .countQuery()
+                .asJson()
+                .logSlowQueryBySlf4j(slowQueryThreshold.toMillis(), TimeUnit.MILLISECONDS, SLF4JLogLevel.WARN, "planets.sql.slow");
+        if (sampleRate > 0) builder.listener(sampledLog());
+        return builder.build();
+    }
+
+    private SLF4JQueryLoggingListener sampledLog() {
+        var listener = new SLF4JQueryLoggingListener();
+        listener.setLogger("planets.sql");
+        listener.setLogLevel(SLF4JLogLevel.INFO);
+        listener.setQueryLogEntryCreator(new DefaultJsonQueryLogEntryCreator());
+        listener.setLoggingCondition(() -> ThreadLocalRandom.current().nextDouble() < sampleRate);
+        return listener;
+    }
+}
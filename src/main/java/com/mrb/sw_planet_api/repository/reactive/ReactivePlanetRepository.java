@@ -0,0 +1,155 @@
+package com.mrb.sw_planet_api.repository.reactive;
+
+import com.mrb.sw_planet_api.model.Planet;
+import com.mrb.sw_planet_api.repository.specification.MatchMode;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import static com.mrb.sw_planet_api.repository.specification.PlanetSpecifications.LIKE_ESCAPE;
+import static com.mrb.sw_planet_api.repository.specification.PlanetSpecifications.likePattern;
+import static com.mrb.sw_planet_api.repository.specification.PlanetSpecifications.normalize;
+import static com.mrb.sw_planet_api.repository.specification.PlanetSpecifications.tokenPatterns;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PASSWORD;
+import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * Non-blocking reads over the planets table through R2DBC, with the same filter semantics as
+ * {@code PlanetSpecifications}.
+ * <p>
+ * The pool is owned here rather than exposed as a {@code ConnectionFactory} bean: Spring Boot
+ * backs off the JDBC DataSource as soon as one exists, and JPA keeps serving every write.
+ */
+@Repository
+public class ReactivePlanetRepository implements DisposableBean {
+
+    private static final String COLUMNS = "select id, name, climate, terrain, version from planets";
+    private static final Set<String> SORTABLE = Set.of("id", "name", "climate", "terrain");
+
+    private final ConnectionPool pool;
+    private final DatabaseClient client;
+
+    public ReactivePlanetRepository(@Value("${planets.reactive.r2dbc.url}") String url,
+                                    @Value("${planets.reactive.r2dbc.username:}") String username,
+                                    @Value("${planets.reactive.r2dbc.password:}") String password,
+                                    @Value("${planets.reactive.r2dbc.pool-size:10}") int poolSize) {
+        var options = ConnectionFactoryOptions.parse(url).mutate();
+        if (hasText(username)) options.option(USER, username);
+        if (hasText(password)) options.option(PASSWORD, password);
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .initialSize(0)
+                .maxSize(poolSize)
+                .build());
+        this.client = DatabaseClient.create(pool);
+    }
+
+    public Mono<Planet> findById(Long id) {
+        return client.sql(COLUMNS + " where id = :id")
+                .bind("id", id)
+                .map(ReactivePlanetRepository::toPlanet)
+                .one();
+    }
+
+    /**
+     * One page of matches without a COUNT, reading one row past the page so the caller can tell
+     * whether another page follows.
+     */
+    public Flux<Planet> findPage(String climate, String terrain, MatchMode match, Pageable pageable) {
+        Map<String, Object> bindings = new HashMap<>();
+        String sql = COLUMNS + where(climate, terrain, match, bindings) + orderBy(pageable.getSort())
+                + " limit :limit offset :offset";
+        bindings.put("limit", pageable.getPageSize() + 1);
+        bindings.put("offset", pageable.getOffset());
+        return query(sql, bindings);
+    }
+
+    /**
+     * Every match in id order; rows are pulled from the database only as fast as the subscriber requests them.
+     */
+    public Flux<Planet> streamAll(String climate, String terrain, MatchMode match) {
+        Map<String, Object> bindings = new HashMap<>();
+        return query(COLUMNS + where(climate, terrain, match, bindings) + " order by id", bindings);
+    }
+
+    public ConnectionPool pool() {
+        return pool;
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+
+    private Flux<Planet> query(String sql, Map<String, Object> bindings) {
+        var spec = client.sql(sql);
+        for (var binding : bindings.entrySet()) spec = spec.bind(binding.getKey(), binding.getValue());
+        return spec.map(ReactivePlanetRepository::toPlanet).all();
+    }
+
+    private static String where(String climate, String terrain, MatchMode match, Map<String, Object> bindings) {
+        List<String> predicates = new ArrayList<>();
+        if (hasText(climate)) predicates.add(matches("climate", climate, match, bindings));
+        if (hasText(terrain)) predicates.add(matches("terrain", terrain, match, bindings));
+        return predicates.isEmpty() ? "" : " where " + String.join(" and ", predicates);
+    }
+
+    // SQL twin of PlanetSpecifications.matches, over the same generated lowercase columns
+    private static String matches(String facet, String value, MatchMode mode, Map<String, Object> bindings) {
+        String column = facet + "_normalized";
+        String escape = " escape '" + LIKE_ESCAPE + "'";
+        return switch (mode) {
+            case EXACT -> {
+                bindings.put(facet, normalize(value));
+                yield column + " = :" + facet;
+            }
+            case PREFIX, CONTAINS -> {
+                bindings.put(facet, likePattern(value, mode));
+                yield column + " like :" + facet + escape;
+            }
+            case ALL_TOKENS, ANY_TOKEN -> {
+                List<String> patterns = tokenPatterns(value);
+                // same as an empty cb.and()/cb.or(): no tokens matches everything for ALL, nothing for ANY
+                if (patterns.isEmpty()) yield mode == MatchMode.ALL_TOKENS ? "1 = 1" : "1 = 0";
+                var tokens = new StringJoiner(mode == MatchMode.ALL_TOKENS ? " and " : " or ", "(", ")");
+                for (int i = 0; i < patterns.size(); i++) {
+                    bindings.put(facet + i, patterns.get(i));
+                    tokens.add("concat(',', replace(" + column + ", ' ', ''), ',') like :" + facet + i + escape);
+                }
+                yield tokens.toString();
+            }
+        };
+    }
+
+    // Only known columns reach the SQL; id always closes the order so pages are stable
+    private static String orderBy(Sort sort) {
+        var order = new StringJoiner(", ", " order by ", "");
+        sort.stream()
+                .filter(property -> SORTABLE.contains(property.getProperty()))
+                .forEach(property -> order.add(property.getProperty() + (property.isDescending() ? " desc" : " asc")));
+        order.add("id");
+        return order.toString();
+    }
+
+    private static Planet toPlanet(Readable row) {
+        var planet = new Planet(row.get("id", Long.class), row.get("name", String.class),
+                row.get("climate", String.class), row.get("terrain", String.class));
+        planet.setVersion(row.get("version", Long.class));
+        return planet;
+    }
+}
@@ -0,0 +1,15 @@
+package com.mrb.sw_planet_api.repository.specification;
+
+/**
+ * How a climate/terrain filter is compared with the normalized column:
+ * EXACT and PREFIX can seek the column index, CONTAINS has to scan it.
+ * ALL_TOKENS and ANY_TOKEN treat both the filter and the column as comma-separated
+ * token lists ("arid, temperate") and require every or at least one filter token.
+ */
+public enum MatchMode {
+    EXACT, PREFIX, CONTAINS, ALL_TOKENS, ANY_TOKEN;
+
+    public boolean isTokenMatch() {
+        return this == ALL_TOKENS || this == ANY_TOKEN;
+    }
+}
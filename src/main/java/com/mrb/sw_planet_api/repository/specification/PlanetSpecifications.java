@@ -1,19 +1,80 @@
 package com.mrb.sw_planet_api.repository.specification;
 
+import com.mrb.sw_planet_api.model.FacetTokens;
 import com.mrb.sw_planet_api.model.Planet;
 import com.mrb.sw_planet_api.model.Planet_;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.metamodel.SingularAttribute;
 import org.springframework.data.jpa.domain.Specification;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 
 public class PlanetSpecifications {
 
+    public static final char LIKE_ESCAPE = '!';
+
     public static Specification<Planet> climateContains(String climate) {
-        return ((root, query, cb)
-                -> cb.like(cb.lower(root.get(Planet_.climate)), "%" + climate.toLowerCase() + "%"));
+        return climateMatches(climate, MatchMode.CONTAINS);
     }
 
     public static Specification<Planet> terrainContains(String terrain) {
-        return ((root, query, cb)
-                -> cb.like(cb.lower(root.get(Planet_.terrain)), "%" + terrain.toLowerCase() + "%"));
+        return terrainMatches(terrain, MatchMode.CONTAINS);
+    }
+
+    public static Specification<Planet> climateMatches(String climate, MatchMode mode) {
+        return matches(Planet_.climateNormalized, climate, mode);
+    }
+
+    public static Specification<Planet> terrainMatches(String terrain, MatchMode mode) {
+        return matches(Planet_.terrainNormalized, terrain, mode);
+    }
+
+    public static Specification<Planet> idIn(Collection<Long> ids) {
+        return (root, query, builder) -> root.get(Planet_.ID).in(ids);
+    }
+
+    public static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    /**
+     * LIKE pattern for PREFIX and CONTAINS over the normalized column, escaped with {@value #LIKE_ESCAPE}.
+     */
+    public static String likePattern(String value, MatchMode mode) {
+        String escaped = escapeLike(normalize(value));
+        return mode == MatchMode.PREFIX ? escaped + "%" : "%" + escaped + "%";
+    }
+
+    /**
+     * One LIKE pattern per filter token, matched against ",token,token," built from the normalized
+     * column with spaces dropped on both sides, so "rid" cannot match "arid".
+     */
+    public static List<String> tokenPatterns(String value) {
+        return FacetTokens.of(normalize(value)).stream()
+                .map(token -> "%," + escapeLike(token.replace(" ", "")) + ",%")
+                .toList();
+    }
+
+    public static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Compares against the generated lowercase column, never cb.lower(column), so EXACT and PREFIX stay index seeks
+    private static Specification<Planet> matches(SingularAttribute<Planet, String> column, String value, MatchMode mode) {
+        return ((root, query, cb) -> switch (mode) {
+            case EXACT -> cb.equal(root.get(column), normalize(value));
+            case PREFIX, CONTAINS -> cb.like(root.get(column), likePattern(value, mode), LIKE_ESCAPE);
+            case ALL_TOKENS, ANY_TOKEN -> {
+                Expression<String> tokens = cb.concat(cb.concat(",",
+                        cb.function("replace", String.class, root.get(column), cb.literal(" "), cb.literal(""))), ",");
+                Predicate[] predicates = tokenPatterns(value).stream()
+                        .map(pattern -> cb.like(tokens, pattern, LIKE_ESCAPE))
+                        .toArray(Predicate[]::new);
+                yield mode == MatchMode.ALL_TOKENS ? cb.and(predicates) : cb.or(predicates);
+            }
+        });
     }
 
 }
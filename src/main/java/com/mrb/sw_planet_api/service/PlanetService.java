@@ -1,81 +1,478 @@
 package com.mrb.sw_planet_api.service;
 
+import com.mrb.sw_planet_api.dto.BatchGetResponse;
+import com.mrb.sw_planet_api.dto.BulkCreateResponse;
+import com.mrb.sw_planet_api.dto.BulkItemResult;
+import com.mrb.sw_planet_api.dto.FacetCountsResponse;
+import com.mrb.sw_planet_api.dto.PlanetCursor;
 import com.mrb.sw_planet_api.dto.PlanetPatchRequest;
 import com.mrb.sw_planet_api.dto.PlanetRequest;
 import com.mrb.sw_planet_api.dto.PlanetResponse;
+import com.mrb.sw_planet_api.exception.BulkCriteriaRequiredException;
 import com.mrb.sw_planet_api.exception.PlanetNotFoundException;
+import com.mrb.sw_planet_api.exception.PlanetVersionMismatchException;
 import com.mrb.sw_planet_api.mapper.PlanetMapper;
+import com.mrb.sw_planet_api.model.FacetTokens;
 import com.mrb.sw_planet_api.model.Planet;
+import com.mrb.sw_planet_api.model.Planet_;
 import com.mrb.sw_planet_api.repository.PlanetRepository;
+import com.mrb.sw_planet_api.repository.projection.PlanetIdView;
+import com.mrb.sw_planet_api.repository.specification.MatchMode;
+import com.mrb.sw_planet_api.service.cache.PlanetCache;
+import com.mrb.sw_planet_api.service.cache.PlanetModificationCounter;
+import com.mrb.sw_planet_api.service.cache.ReadCoalescer;
+import com.mrb.sw_planet_api.service.cache.SearchCountCache;
+import com.mrb.sw_planet_api.service.cache.SearchResultCache;
+import com.mrb.sw_planet_api.service.event.PlanetChangedEvent;
+import com.mrb.sw_planet_api.service.index.PlanetFacetCounts;
+import com.mrb.sw_planet_api.service.index.PlanetFacetIndex;
+import com.mrb.sw_planet_api.service.index.PlanetFacetIndex.Facet;
+import com.mrb.sw_planet_api.service.index.PlanetNameIndex;
+import com.mrb.sw_planet_api.service.metrics.PlanetQueryMetrics;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import static com.mrb.sw_planet_api.repository.specification.PlanetSpecifications.climateContains;
-import static com.mrb.sw_planet_api.repository.specification.PlanetSpecifications.terrainContains;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import static com.mrb.sw_planet_api.repository.specification.PlanetSpecifications.climateMatches;
+import static com.mrb.sw_planet_api.repository.specification.PlanetSpecifications.escapeLike;
+import static com.mrb.sw_planet_api.repository.specification.PlanetSpecifications.idIn;
+import static com.mrb.sw_planet_api.repository.specification.PlanetSpecifications.terrainMatches;
 import static org.springframework.util.StringUtils.hasText;
 
+// Every public operation is timed as planets.service, tagged by method
 @Service
+@Timed("planets.service")
 @RequiredArgsConstructor
 public class PlanetService {
 
+    private static final Sort KEYSET_ORDER = Sort.by(Planet_.NAME, Planet_.ID);
+    private static final int BATCH_GET_CHUNK = 1_000;
+    private static final int BULK_WRITE_CHUNK = 1_000;
+    // Bitmap matches up to this size are read with id IN (...) in any order; a broader match would near the drivers'
+    // bind parameter limits and covers enough of the table that the SQL token filter reads about as many rows
+    private static final int BITMAP_FILTER_LIMIT = 10_000;
+    // A null array element has no fields to validate, so it is reported against the item itself
+    private static final Map<String, List<String>> NULL_ITEM_ERRORS = Map.of("item", List.of("must not be null"));
+
     public final PlanetRepository repository;
+    private final PlanetNameIndex nameIndex;
+    private final PlanetFacetIndex facetIndex;
+    private final PlanetFacetCounts facetTotals;
+    private final SearchCountCache countCache;
+    private final PlanetCache planetCache;
+    private final SearchResultCache searchCache;
+    private final PlanetModificationCounter modifications;
+    private final ReadCoalescer coalescer;
+    private final PlanetQueryMetrics queryMetrics;
+    private final ApplicationEventPublisher publisher;
+    private final Validator validator;
 
     public PlanetResponse create(PlanetRequest request) {
-        return PlanetMapper.toResponse(
+        var response = PlanetMapper.toResponse(
                 repository.save(PlanetMapper.toEntity(request)));
+        tableChanged();
+        publisher.publishEvent(PlanetChangedEvent.created(response));
+        return response;
     }
 
+    /**
+     * Validates every item on its own, so one bad item does not reject the rest, and inserts the
+     * valid ones with batched JDBC statements in a single transaction.
+     */
+    @Transactional
+    public BulkCreateResponse createAll(List<PlanetRequest> requests) {
+        var results = new BulkItemResult[requests.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<Planet> planets = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            var request = requests.get(i);
+            if (request == null) {
+                results[i] = BulkItemResult.invalid(i, NULL_ITEM_ERRORS);
+                continue;
+            }
+            var violations = validator.validate(request);
+            if (violations.isEmpty()) {
+                positions.add(i);
+                planets.add(PlanetMapper.toEntity(request));
+            } else {
+                results[i] = BulkItemResult.invalid(i, violations.stream()
+                        .collect(Collectors.groupingBy(violation -> violation.getPropertyPath().toString(),
+                                Collectors.mapping(ConstraintViolation::getMessage, Collectors.toList()))));
+            }
+        }
+        if (!planets.isEmpty()) {
+            repository.insertAll(planets);
+            tableChanged();
+        }
+        for (int i = 0; i < planets.size(); i++) {
+            var response = PlanetMapper.toResponse(planets.get(i));
+            results[positions.get(i)] = BulkItemResult.created(positions.get(i), response);
+            publisher.publishEvent(PlanetChangedEvent.created(response));
+        }
+        return BulkCreateResponse.of(List.of(results));
+    }
+
+    // A burst of misses for the same id shares one query
     public PlanetResponse findById(Long id) {
-        var planet = repository.findById(id)
-                .orElseThrow(() -> new PlanetNotFoundException(id));
-        return PlanetMapper.toResponse(planet);
+        var cached = planetCache.get(id);
+        if (cached != null) return cached;
+        return coalescer.load("findById", id, () -> {
+            long stamp = planetCache.stamp();
+            var planet = repository.findById(id)
+                    .orElseThrow(() -> new PlanetNotFoundException(id));
+            var response = PlanetMapper.toResponse(planet);
+            planetCache.put(response, stamp);
+            return response;
+        });
+    }
+
+    /**
+     * Resolves the distinct ids in request order: cached planets first, the rest with one
+     * {@code IN} query per {@value #BATCH_GET_CHUNK} ids, caching what was read.
+     */
+    public BatchGetResponse findAllById(List<Long> ids) {
+        Map<Long, PlanetResponse> found = new HashMap<>();
+        List<Long> uncached = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            var cached = planetCache.get(id);
+            if (cached != null) found.put(id, cached);
+            else uncached.add(id);
+        }
+        for (int from = 0; from < uncached.size(); from += BATCH_GET_CHUNK) {
+            long stamp = planetCache.stamp();
+            for (Planet planet : repository.findAllById(uncached.subList(from, Math.min(from + BATCH_GET_CHUNK, uncached.size())))) {
+                var response = PlanetMapper.toResponse(planet);
+                planetCache.put(response, stamp);
+                found.put(planet.getId(), response);
+            }
+        }
+        List<PlanetResponse> planets = new ArrayList<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            var planet = found.get(id);
+            if (planet != null) planets.add(planet);
+            else missing.add(id);
+        }
+        return new BatchGetResponse(planets, missing);
     }
 
     public PlanetResponse findByName(String name) {
-        var planet = repository.findByNameContainingIgnoreCase(name)
-                .orElseThrow(() -> new PlanetNotFoundException(name));
-        return PlanetMapper.toResponse(planet);
+        return coalescer.load("findByName", name, () -> {
+            var planet = (nameIndex.isReady() ? findByNameIndexed(name) : findByNameRanked(name))
+                    .orElseThrow(() -> new PlanetNotFoundException(name));
+            return PlanetMapper.toResponse(planet);
+        });
+    }
+
+    public Page<PlanetResponse> findMatches(String name, Pageable pageable) {
+        // ranking defines the order, so any client sort is dropped
+        var page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        if (nameIndex.isReady()) {
+            var ids = nameIndex.search(name);
+            int from = (int) Math.min(page.getOffset(), ids.size());
+            var pageIds = ids.subList(from, Math.min(from + page.getPageSize(), ids.size()));
+            return new PageImpl<>(load(pageIds), page, ids.size());
+        }
+        String needle = escapeLike(name.toLowerCase(Locale.ROOT));
+        var planets = queryMetrics.data("matches",
+                () -> repository.findRankedByName(name.toLowerCase(Locale.ROOT), needle + "%", "%" + needle + "%", page));
+        return PageableExecutionUtils.getPage(planets, page,
+                        () -> queryMetrics.count("matches", () -> repository.countByNameLike("%" + needle + "%")))
+                .map(PlanetMapper::toResponse);
+    }
+
+    // Stops at the first tier that matches: exact is an equality probe on idx_planets_name_normalized
+    private Optional<Planet> findByNameRanked(String name) {
+        return repository.findFirstByNameNormalizedOrderByIdAsc(name.toLowerCase(Locale.ROOT))
+                .or(() -> repository.findFirstByNameStartingWithIgnoreCaseOrderByNameAscIdAsc(name))
+                .or(() -> repository.findFirstByNameContainingIgnoreCaseOrderByNameAscIdAsc(name));
+    }
+
+    // Index resolves the ranked candidate ids in memory, so only the chosen row is read from the database
+    private Optional<Planet> findByNameIndexed(String name) {
+        return nameIndex.search(name).stream()
+                .findFirst()
+                .flatMap(repository::findById);
     }
 
     public Page<PlanetResponse> find(String climate, String terrain, Pageable pageable) {
-        Specification<Planet> spec = null;
-        if (hasText(climate)) spec = climateContains(climate);
-        if (hasText(terrain)) spec = (spec == null) ? terrainContains(terrain) : spec.and(terrainContains(terrain));
-        if (spec == null) {
-            return repository.findAll(pageable).map(PlanetMapper::toResponse);
+        return find(climate, terrain, MatchMode.CONTAINS, pageable);
+    }
+
+    // With the facet index ready, token matches are filtered by its bitmap: an id order pages over the bits, any other
+    // order reads the page by primary key with the requested sort, and the total is always the bitmap's cardinality
+    public Page<PlanetResponse> find(String climate, String terrain, MatchMode match, Pageable pageable) {
+        var ids = bitmapFilter(climate, terrain, match);
+        if (ids != null && (idOrdered(pageable) || ids.isEmpty())) {
+            var page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+            return new PageImpl<>(load(page(ids, page)), page, ids.cardinality());
+        }
+        if (ids != null && ids.cardinality() <= BITMAP_FILTER_LIMIT) {
+            var rows = queryMetrics.data("search", () -> repository.findBy(idIn(ids.stream().mapToObj(Long::valueOf).toList()),
+                    query -> query.slice(pageable)));
+            return new PageImpl<>(rows.map(PlanetMapper::toResponse).getContent(), pageable, ids.cardinality());
+        }
+        var key = searchCache.key(climate, terrain, match, pageable, true);
+        Page<PlanetResponse> cached = searchCache.get(key);
+        if (cached != null) return cached;
+        // Rows and COUNT run as separate queries so each is timed on its own; the count is skipped when the page tells the total
+        var spec = filter(climate, terrain, match);
+        var rows = queryMetrics.data("search", () -> repository.findBy(spec == null ? Specification.unrestricted() : spec,
+                query -> query.slice(pageable)));
+        var page = PageableExecutionUtils.getPage(rows.getContent(), pageable,
+                        () -> ids != null ? ids.cardinality() : count(spec))
+                .map(PlanetMapper::toResponse);
+        searchCache.put(key, page);
+        return page;
+    }
+
+    // Reads size + 1 rows to learn whether a next page exists, so no COUNT query runs
+    public Slice<PlanetResponse> findSlice(String climate, String terrain, MatchMode match, Pageable pageable) {
+        var ids = bitmapFilter(climate, terrain, match);
+        if (ids != null && (idOrdered(pageable) || ids.isEmpty())) {
+            var page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+            return new SliceImpl<>(load(page(ids, page)), page, ids.cardinality() > page.getOffset() + page.getPageSize());
+        }
+        if (ids != null && ids.cardinality() <= BITMAP_FILTER_LIMIT) {
+            return queryMetrics.data("search", () -> repository.findBy(idIn(ids.stream().mapToObj(Long::valueOf).toList()),
+                            query -> query.slice(pageable)))
+                    .map(PlanetMapper::toResponse);
+        }
+        var key = searchCache.key(climate, terrain, match, pageable, false);
+        Slice<PlanetResponse> cached = searchCache.get(key);
+        if (cached != null) return cached;
+        var spec = filter(climate, terrain, match);
+        var slice = queryMetrics.data("search", () -> repository.findBy(spec == null ? Specification.unrestricted() : spec,
+                        query -> query.slice(pageable)))
+                .map(PlanetMapper::toResponse);
+        searchCache.put(key, slice);
+        return slice;
+    }
+
+    public long approximateCount(String climate, String terrain, MatchMode match) {
+        if (match.isTokenMatch() && facetIndex.isReady()) return facetMatch(climate, terrain, match).cardinality();
+        return countCache.get(climate, terrain, match, () -> count(filter(climate, terrain, match)));
+    }
+
+    /**
+     * Unfiltered counts come straight from the facet index aggregates and token filters narrow them
+     * with the match bitmap; anything else tallies the matching rows.
+     */
+    public FacetCountsResponse facetCounts(String climate, String terrain, MatchMode match) {
+        if (!hasText(climate) && !hasText(terrain)) {
+            return facetTotals.counts(null);
         }
-        return repository.findAll(spec, pageable).map(PlanetMapper::toResponse);
+        if (facetIndex.isReady() && match.isTokenMatch()) {
+            var ids = facetMatch(climate, terrain, match);
+            return new FacetCountsResponse(facetIndex.counts(Facet.CLIMATE, ids), facetIndex.counts(Facet.TERRAIN, ids));
+        }
+        var spec = filter(climate, terrain, match);
+        return queryMetrics.data("facets", () -> facetTotals.counts(spec));
+    }
+
+    // Seeks past the cursor on (name, id) instead of OFFSET, and fetches size + 1 rows rather than counting
+    public Slice<PlanetResponse> find(String climate, String terrain, MatchMode match, PlanetCursor after, int size) {
+        var spec = filter(climate, terrain, match);
+        ScrollPosition position = (after == null)
+                ? ScrollPosition.keyset()
+                : ScrollPosition.forward(Map.of(Planet_.NAME, after.name(), Planet_.ID, after.id()));
+        Window<Planet> window = queryMetrics.data("search-cursor", () -> repository.findBy(spec == null ? Specification.unrestricted() : spec,
+                query -> query.sortBy(KEYSET_ORDER).limit(size).scroll(position)));
+        return new SliceImpl<>(window.map(PlanetMapper::toResponse).getContent(), PageRequest.of(0, size, KEYSET_ORDER), window.hasNext());
+    }
+
+    private long count(Specification<Planet> spec) {
+        return queryMetrics.count("search", () -> spec == null ? repository.count() : repository.count(spec));
+    }
+
+    // Token filters are answered by the bitmap index; ids come back in ascending order, so the page is a bit range
+    private BitSet facetMatch(String climate, String terrain, MatchMode match) {
+        return facetIndex.match(FacetTokens.of(climate), FacetTokens.of(terrain), match == MatchMode.ALL_TOKENS);
     }
 
+    // The matching ids when the facet index can answer the filter, otherwise null
+    private BitSet bitmapFilter(String climate, String terrain, MatchMode match) {
+        return match.isTokenMatch() && facetIndex.isReady() ? facetMatch(climate, terrain, match) : null;
+    }
+
+    // The bitmap yields ids in ascending order, so it can only serve pages asking for that order or none
+    private static boolean idOrdered(Pageable pageable) {
+        return pageable.getSort().isUnsorted() || pageable.getSort().equals(Sort.by(Planet_.ID));
+    }
+
+    private static List<Long> page(BitSet ids, Pageable page) {
+        return ids.stream()
+                .skip(page.getOffset())
+                .limit(page.getPageSize())
+                .mapToObj(Long::valueOf)
+                .toList();
+    }
+
+    // Reads the rows for already ranked ids and keeps their order
+    private List<PlanetResponse> load(List<Long> ids) {
+        Map<Long, Planet> rows = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Planet::getId, Function.identity()));
+        return ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .map(PlanetMapper::toResponse)
+                .toList();
+    }
+
+    private void evict(Long id) {
+        planetCache.evict(id);
+        tableChanged();
+    }
+
+    // Every write lands here: search pages go stale and their ETags must move
+    private void tableChanged() {
+        searchCache.invalidateAll();
+        modifications.increment();
+    }
+
+    private static Specification<Planet> filter(String climate, String terrain, MatchMode match) {
+        Specification<Planet> spec = null;
+        if (hasText(climate)) spec = climateMatches(climate, match);
+        if (hasText(terrain)) spec = (spec == null) ? terrainMatches(terrain, match) : spec.and(terrainMatches(terrain, match));
+        return spec;
+    }
+
+    // The affected-row count doubles as the existence check, so a delete is a single statement
+    @Transactional
     public Map<String, String> delete(Long id) {
-        var planet = repository.findById(id)
-                .orElseThrow(() -> new PlanetNotFoundException(id));
-        repository.delete(planet);
+        if (repository.deleteAllByIds(List.of(id)) == 0) throw new PlanetNotFoundException(id);
+        evict(id);
+        publisher.publishEvent(PlanetChangedEvent.deleted(id));
         return Map.of("message", "Planet deleted successfully");
     }
 
+    @Transactional
+    public int deleteAll(List<Long> ids) {
+        var distinct = List.copyOf(new LinkedHashSet<>(ids));
+        int affected = 0;
+        for (int from = 0; from < distinct.size(); from += BULK_WRITE_CHUNK) {
+            affected += repository.deleteAllByIds(distinct.subList(from, Math.min(from + BULK_WRITE_CHUNK, distinct.size())));
+        }
+        planetCache.evictAll(distinct);
+        tableChanged();
+        distinct.forEach(id -> publisher.publishEvent(PlanetChangedEvent.deleted(id)));
+        return affected;
+    }
+
+    // Reads only the matching ids, so caches and indexes can be told which planets went away
+    @Transactional
+    public int deleteAll(String climate, String terrain, MatchMode match) {
+        var spec = filter(climate, terrain, match);
+        if (spec == null) throw new BulkCriteriaRequiredException();
+        List<Long> ids = repository.findBy(spec, query -> query.as(PlanetIdView.class).all()).stream()
+                .map(PlanetIdView::getId)
+                .toList();
+        return deleteAll(ids);
+    }
+
+    /**
+     * Applies one patch to every id with a single UPDATE per {@value #BULK_WRITE_CHUNK} ids.
+     * The changed rows are read back once afterwards to refresh caches and indexes.
+     */
+    @Transactional
+    public int patchAll(List<Long> ids, PlanetPatchRequest request) {
+        String name = hasText(request.name()) ? request.name() : null;
+        String climate = hasText(request.climate()) ? request.climate() : null;
+        String terrain = hasText(request.terrain()) ? request.terrain() : null;
+        if (name == null && climate == null && terrain == null) return 0;
+        var distinct = List.copyOf(new LinkedHashSet<>(ids));
+        int affected = 0;
+        for (int from = 0; from < distinct.size(); from += BULK_WRITE_CHUNK) {
+            var chunk = distinct.subList(from, Math.min(from + BULK_WRITE_CHUNK, distinct.size()));
+            affected += repository.patchAllByIds(chunk, name, climate, terrain);
+            repository.findAllById(chunk).forEach(planet ->
+                    publisher.publishEvent(PlanetChangedEvent.updated(null, PlanetMapper.toResponse(planet))));
+        }
+        planetCache.evictAll(distinct);
+        tableChanged();
+        return affected;
+    }
+
     @Transactional
     public PlanetResponse patch(Long id, PlanetPatchRequest request) {
+        return patch(id, request, null);
+    }
+
+    /**
+     * {@code expectedVersion} is the version the client last saw (its If-Match), or null to
+     * patch unconditionally. A write that races in between still fails on the version
+     * check Hibernate adds to the UPDATE: as a {@link PlanetVersionMismatchException} when the
+     * client sent a version, otherwise as the {@link OptimisticLockingFailureException} itself.
+     */
+    @Transactional
+    public PlanetResponse patch(Long id, PlanetPatchRequest request, Long expectedVersion) {
         var planet = repository.findById(id)
                 .orElseThrow(() -> new PlanetNotFoundException(id));
+        if (expectedVersion != null && !expectedVersion.equals(planet.getVersion())) {
+            throw new PlanetVersionMismatchException(id);
+        }
+        var before = PlanetMapper.toResponse(planet);
         if (hasText(request.name())) planet.setName(request.name());
         if (hasText(request.climate())) planet.setClimate(request.climate());
         if (hasText(request.terrain())) planet.setTerrain(request.terrain());
-        return PlanetMapper.toResponse(planet);
+        // flushed here rather than at commit so the response carries the version the UPDATE wrote
+        Planet saved;
+        try {
+            saved = repository.saveAndFlush(planet);
+        } catch (OptimisticLockingFailureException exception) {
+            if (expectedVersion != null) throw new PlanetVersionMismatchException(id);
+            throw exception;
+        }
+        var after = PlanetMapper.toResponse(saved);
+        evict(id);
+        publisher.publishEvent(PlanetChangedEvent.updated(before, after));
+        return after;
     }
 //    @Transactional ensure active context JPA and avoid redundant queries
 
     @Transactional
     public PlanetResponse update(Long id, PlanetRequest request) {
-        var planet = repository.findById(id)
-                .orElseThrow(() -> new PlanetNotFoundException(id));
-        planet.setName(request.getName());
-        planet.setClimate(request.getClimate());
-        planet.setTerrain(request.getTerrain());
-        return PlanetMapper.toResponse(planet);
+        return update(id, request, null);
+    }
+
+    // Overwrites every column, so nothing has to be read first: one UPDATE whose count tells whether the id exists.
+    // The new version is only known when the client sent the one it expected.
+    @Transactional
+    public PlanetResponse update(Long id, PlanetRequest request, Long expectedVersion) {
+        if (repository.updateById(id, expectedVersion, request.getName(), request.getClimate(), request.getTerrain()) == 0) {
+            if (expectedVersion != null && repository.existsById(id)) throw new PlanetVersionMismatchException(id);
+            throw new PlanetNotFoundException(id);
+        }
+        var after = new PlanetResponse(id, request.getName(), request.getClimate(), request.getTerrain(),
+                expectedVersion == null ? null : expectedVersion + 1);
+        evict(id);
+        publisher.publishEvent(PlanetChangedEvent.updated(null, after));
+        return after;
     }
 }
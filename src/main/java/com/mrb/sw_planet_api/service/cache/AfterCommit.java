@@ -0,0 +1,27 @@
+package com.mrb.sw_planet_api.service.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs a cache invalidation when the write is made and, inside a transaction, again after
+ * commit: the first run stops readers being served the old state, the second catches a read
+ * that ran while the write was still uncommitted and stored what it saw.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static void runNowAndAfterCommit(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.mrb.sw_planet_api.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mrb.sw_planet_api.dto.PlanetResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, TTL-evicting cache of {@link PlanetResponse} by id backing {@code PlanetService.findById}.
+ * Writes invalidate through {@link #evict(Long)}; the TTL only bounds staleness for writes
+ * made by other instances. Hit, miss and eviction counts are published as {@code cache.*}
+ * metrics tagged {@code cache=planets.by-id}.
+ * <p>
+ * Readers take a {@link #stamp()} before loading and hand it to {@link #put(PlanetResponse, long)},
+ * which drops the value if an eviction happened in between, so a row read before a write
+ * committed is never left cached after it.
+ */
+@Component
+public class PlanetCache {
+
+    private final boolean enabled;
+    private final Cache<Long, PlanetResponse> planets;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PlanetCache(@Value("${planets.cache.by-id.enabled:true}") boolean enabled,
+                       @Value("${planets.cache.by-id.max-entries:10000}") long maxEntries,
+                       @Value("${planets.cache.by-id.ttl:60s}") Duration ttl,
+                       MeterRegistry registry) {
+        this.enabled = enabled;
+        this.planets = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, planets, "planets.by-id");
+    }
+
+    /**
+     * Returns the cached planet, or null on a miss or when the cache is disabled.
+     */
+    public PlanetResponse get(Long id) {
+        return enabled ? planets.getIfPresent(id) : null;
+    }
+
+    /**
+     * Eviction count to take before reading the planet from the database.
+     */
+    public long stamp() {
+        return evictions.get();
+    }
+
+    /**
+     * Caches a planet read after {@code stamp} was taken. Evictions bump the count before
+     * invalidating, so if one lands around the put either this check sees it or its
+     * invalidation runs after the put and removes it.
+     */
+    public void put(PlanetResponse planet, long stamp) {
+        if (!enabled || evictions.get() != stamp) return;
+        planets.put(planet.getId(), planet);
+        if (evictions.get() != stamp) planets.invalidate(planet.getId());
+    }
+
+    public void evict(Long id) {
+        AfterCommit.runNowAndAfterCommit(() -> {
+            evictions.incrementAndGet();
+            planets.invalidate(id);
+        });
+    }
+
+    public void evictAll(Collection<Long> ids) {
+        AfterCommit.runNowAndAfterCommit(() -> {
+            evictions.incrementAndGet();
+            planets.invalidateAll(ids);
+        });
+    }
+
+    public CacheStats stats() {
+        return planets.stats();
+    }
+}
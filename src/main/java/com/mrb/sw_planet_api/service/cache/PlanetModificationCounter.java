@@ -0,0 +1,30 @@
+package com.mrb.sw_planet_api.service.cache;
+
+import org.springframework.stereotype.Component;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Table-wide counter that moves on every planet write, used as the validator for
+ * {@code /planets/search} ETags. While it has not moved, no result can have changed, so a
+ * matching If-None-Match is answered without running the query.
+ * <p>
+ * It starts from the boot time, so tags handed out before a restart do not match after it.
+ * Like the other in-process caches it only sees writes made through this node.
+ */
+@Component
+public class PlanetModificationCounter {
+
+    private final AtomicLong count = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return count.get();
+    }
+
+    /**
+     * Moves the counter now and again after commit, so a tag read while the write was still
+     * uncommitted is not taken for the committed state.
+     */
+    public void increment() {
+        AfterCommit.runNowAndAfterCommit(count::incrementAndGet);
+    }
+}
@@ -0,0 +1,81 @@
+package com.mrb.sw_planet_api.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for hot reads: concurrent calls with the same method and argument share the
+ * load that is already running and all receive its result, or its exception.
+ * <p>
+ * Keys carry the table modification count, so a request arriving after a write never joins a
+ * load that started before it. Coordination is per key through the map, with no global lock.
+ * Loads and joins are counted as {@code planets.reads.loads} and {@code planets.reads.coalesced},
+ * tagged by method.
+ */
+@Component
+public class ReadCoalescer {
+
+    private record Key(String method, Object argument, long modifications) {}
+
+    private final boolean enabled;
+    private final PlanetModificationCounter modifications;
+    private final MeterRegistry registry;
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> loads = new ConcurrentHashMap<>();
+    private final Map<String, Counter> coalesced = new ConcurrentHashMap<>();
+
+    public ReadCoalescer(@Value("${planets.coalescing.enabled:true}") boolean enabled,
+                         PlanetModificationCounter modifications,
+                         MeterRegistry registry) {
+        this.enabled = enabled;
+        this.modifications = modifications;
+        this.registry = registry;
+        Gauge.builder("planets.reads.in-flight", inFlight, Map::size).register(registry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T load(String method, Object argument, Supplier<T> loader) {
+        if (!enabled) return loader.get();
+        var key = new Key(method, argument, modifications.current());
+        var mine = new CompletableFuture<Object>();
+        var running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            counter(coalesced, "planets.reads.coalesced", method).increment();
+            return (T) join(running);
+        }
+        counter(loads, "planets.reads.loads", method).increment();
+        try {
+            T value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (Throwable failure) {
+            mine.completeExceptionally(failure);
+            throw failure;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // Followers see the leader's own exception, not the CompletionException wrapping it
+    private static Object join(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) throw cause;
+            if (exception.getCause() instanceof Error cause) throw cause;
+            throw exception;
+        }
+    }
+
+    private Counter counter(Map<String, Counter> counters, String name, String method) {
+        return counters.computeIfAbsent(method, tag -> Counter.builder(name).tag("method", tag).register(registry));
+    }
+}
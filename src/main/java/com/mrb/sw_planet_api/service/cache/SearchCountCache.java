@@ -0,0 +1,37 @@
+package com.mrb.sw_planet_api.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mrb.sw_planet_api.repository.specification.MatchMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived totals per climate/terrain filter, for clients that skip the COUNT query
+ * but still want an idea of the result size. Entries only expire on TTL, so a total
+ * can lag behind writes by up to {@code planets.search.approximate-total.ttl}.
+ */
+@Component
+public class SearchCountCache {
+
+    private final Cache<String, Long> totals;
+
+    public SearchCountCache(@Value("${planets.search.approximate-total.ttl:30s}") Duration ttl,
+                            @Value("${planets.search.approximate-total.max-entries:1024}") long maxEntries) {
+        this.totals = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    public long get(String climate, String terrain, MatchMode match, LongSupplier counter) {
+        return totals.get(match + "\u0000" + normalize(climate) + '\u0000' + normalize(terrain), key -> counter.getAsLong());
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
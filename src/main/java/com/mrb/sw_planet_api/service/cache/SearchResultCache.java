@@ -0,0 +1,85 @@
+package com.mrb.sw_planet_api.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mrb.sw_planet_api.dto.PlanetResponse;
+import com.mrb.sw_planet_api.repository.specification.MatchMode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches {@code /planets/search} result pages by normalized climate/terrain filter and pageable.
+ * <p>
+ * Every key carries the generation current when it was built, and every write bumps the
+ * generation, so pages computed before a write are never served after it; they simply
+ * become unreachable and age out. Memory is bounded by the total number of planets held
+ * across all cached pages.
+ */
+@Component
+public class SearchResultCache {
+
+    public record Key(long generation, String climate, String terrain, MatchMode match,
+                      int page, int size, String sort, boolean counted) {}
+
+    private final boolean enabled;
+    private final AtomicLong generation = new AtomicLong();
+    private final Cache<Key, Slice<PlanetResponse>> results;
+
+    public SearchResultCache(@Value("${planets.cache.search.enabled:true}") boolean enabled,
+                             @Value("${planets.cache.search.max-planets:50000}") long maxPlanets,
+                             @Value("${planets.cache.search.ttl:5m}") Duration ttl,
+                             MeterRegistry registry) {
+        this.enabled = enabled;
+        this.results = Caffeine.newBuilder()
+                .maximumWeight(maxPlanets)
+                .weigher((Key key, Slice<PlanetResponse> slice) -> Math.max(1, slice.getNumberOfElements()))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, results, "planets.search");
+        Gauge.builder("cache.hit.ratio", results, cache -> cache.stats().hitRate())
+                .tag("cache", "planets.search")
+                .register(registry);
+    }
+
+    /**
+     * Builds the key before the query runs, so a write landing mid-query moves the
+     * generation past it rather than letting the result be stored as current.
+     */
+    public Key key(String climate, String terrain, MatchMode match, Pageable pageable, boolean counted) {
+        return new Key(generation.get(), normalize(climate), normalize(terrain), match,
+                pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString(), counted);
+    }
+
+    /**
+     * Returns the cached result, or null on a miss or when the cache is disabled.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Slice<PlanetResponse>> T get(Key key) {
+        return enabled ? (T) results.getIfPresent(key) : null;
+    }
+
+    public void put(Key key, Slice<PlanetResponse> result) {
+        if (enabled) results.put(key, result);
+    }
+
+    public void invalidateAll() {
+        AfterCommit.runNowAndAfterCommit(generation::incrementAndGet);
+    }
+
+    public double hitRatio() {
+        return results.stats().hitRate();
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
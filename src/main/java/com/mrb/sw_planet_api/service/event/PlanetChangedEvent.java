@@ -0,0 +1,30 @@
+package com.mrb.sw_planet_api.service.event;
+
+import com.mrb.sw_planet_api.dto.PlanetResponse;
+
+/**
+ * Published by {@code PlanetService} after every write so in-process derived state
+ * (indexes, caches) can follow the table without polling it.
+ * {@code before} is null on create and {@code after} is null on delete. Bulk writes never
+ * load the rows they change, so their events carry no {@code before}.
+ */
+public record PlanetChangedEvent(Type type, Long id, PlanetResponse before, PlanetResponse after) {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    public static PlanetChangedEvent created(PlanetResponse after) {
+        return new PlanetChangedEvent(Type.CREATED, after.getId(), null, after);
+    }
+
+    public static PlanetChangedEvent updated(PlanetResponse before, PlanetResponse after) {
+        return new PlanetChangedEvent(Type.UPDATED, after.getId(), before, after);
+    }
+
+    public static PlanetChangedEvent deleted(PlanetResponse before) {
+        return new PlanetChangedEvent(Type.DELETED, before.getId(), before, null);
+    }
+
+    public static PlanetChangedEvent deleted(Long id) {
+        return new PlanetChangedEvent(Type.DELETED, id, null, null);
+    }
+}
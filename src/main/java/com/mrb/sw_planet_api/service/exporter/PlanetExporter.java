@@ -0,0 +1,97 @@
+package com.mrb.sw_planet_api.service.exporter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mrb.sw_planet_api.dto.PlanetResponse;
+import com.mrb.sw_planet_api.mapper.PlanetMapper;
+import com.mrb.sw_planet_api.model.Planet;
+import com.mrb.sw_planet_api.repository.PlanetRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every planet, ordered by id, from one forward-only query: rows are mapped and written
+ * as they arrive and then detached, so neither the persistence context nor the response
+ * collects the table. Output is flushed every {@code planets.export.flush-rows} rows.
+ */
+@Component
+public class PlanetExporter {
+
+    private static final String CSV_HEADER = "id,name,climate,terrain";
+
+    private final PlanetRepository repository;
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+    private final int flushRows;
+
+    public PlanetExporter(PlanetRepository repository, EntityManager entityManager, ObjectMapper objectMapper,
+                          @Value("${planets.export.flush-rows:1000}") int flushRows) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.writer = objectMapper.writerFor(PlanetResponse.class)
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+        this.flushRows = flushRows;
+    }
+
+    @Transactional
+    public void export(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Planet> planets = repository.streamAllByOrderByIdAsc()) {
+            Iterator<PlanetResponse> rows = planets
+                    .map(planet -> {
+                        entityManager.detach(planet);
+                        return PlanetMapper.toResponse(planet);
+                    })
+                    .iterator();
+            switch (format) {
+                case NDJSON -> writeNdjson(rows, out);
+                case CSV -> writeCsv(rows, out);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<PlanetResponse> rows, OutputStream out) throws IOException {
+        JsonGenerator generator = writer.createGenerator(out);
+        for (long count = 1; rows.hasNext(); count++) {
+            writer.writeValue(generator, rows.next());
+            generator.writeRaw('\n');
+            if (count % flushRows == 0) generator.flush();
+        }
+        generator.flush();
+    }
+
+    private void writeCsv(Iterator<PlanetResponse> rows, OutputStream out) throws IOException {
+        Writer csv = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        csv.write(CSV_HEADER);
+        csv.write('\n');
+        for (long count = 1; rows.hasNext(); count++) {
+            var planet = rows.next();
+            csv.write(planet.getId() + "," + csvField(planet.getName()) + ","
+                    + csvField(planet.getClimate()) + "," + csvField(planet.getTerrain()));
+            csv.write('\n');
+            if (count % flushRows == 0) csv.flush();
+        }
+        csv.flush();
+    }
+
+    // RFC 4180: quote fields holding a separator, a quote or a line break, doubling inner quotes
+    private static String csvField(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,72 @@
+package com.mrb.sw_planet_api.service.importer;
+
+import lombok.Getter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one NDJSON import, updated by the importing request and read by the job
+ * status endpoint while it runs. Only the first {@code maxErrors} line errors are kept,
+ * so a file full of bad lines cannot grow the job without bound.
+ */
+@Getter
+public class ImportJob {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    public record LineError(long line, String message, Map<String, List<String>> fieldErrors) {}
+
+    private final String id = UUID.randomUUID().toString();
+    private final Instant startedAt = Instant.now();
+    private final AtomicLong lines = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final int maxErrors;
+    private final List<LineError> errors = new ArrayList<>();
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String message;
+
+    public ImportJob(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public void read() {
+        lines.incrementAndGet();
+    }
+
+    public void imported(long count) {
+        imported.addAndGet(count);
+    }
+
+    public void failed(LineError error) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) errors.add(error);
+        }
+    }
+
+    public List<LineError> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+
+    public void complete() {
+        finish(Status.COMPLETED, null);
+    }
+
+    public void fail(String message) {
+        finish(Status.FAILED, message);
+    }
+
+    private void finish(Status status, String message) {
+        this.message = message;
+        this.finishedAt = Instant.now();
+        this.status = status;
+    }
+}
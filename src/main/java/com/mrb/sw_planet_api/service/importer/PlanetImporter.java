@@ -0,0 +1,128 @@
+package com.mrb.sw_planet_api.service.importer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mrb.sw_planet_api.dto.PlanetRequest;
+import com.mrb.sw_planet_api.exception.ImportJobNotFoundException;
+import com.mrb.sw_planet_api.service.PlanetService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Imports an {@code application/x-ndjson} body one object at a time with Jackson's streaming
+ * parser. Parsed requests are collected into chunks of {@code planets.import.chunk-size} and each
+ * chunk goes through {@link PlanetService#createAll} in its own transaction, so memory holds at
+ * most one chunk no matter how large the input is.
+ * <p>
+ * A line that is not a valid planet is recorded on the job and skipped. Broken JSON ends the
+ * import, since the parser cannot find the next line reliably; chunks already written stay committed.
+ * Any other failure, such as a chunk write that throws, fails the job too. Jobs are kept for
+ * {@code planets.import.retention} after they finish, however long they ran.
+ */
+@Component
+public class PlanetImporter {
+
+    // A running job never expires; its retention starts once it completes or fails
+    private static final Duration RUNNING = Duration.ofNanos(Long.MAX_VALUE);
+
+    private final PlanetService service;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader reader;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final Cache<String, ImportJob> jobs;
+
+    public PlanetImporter(PlanetService service, ObjectMapper objectMapper,
+                          @Value("${planets.import.chunk-size:1000}") int chunkSize,
+                          @Value("${planets.import.max-errors:100}") int maxErrors,
+                          @Value("${planets.import.retention:1h}") Duration retention) {
+        this.service = service;
+        this.objectMapper = objectMapper;
+        this.reader = objectMapper.readerFor(PlanetRequest.class);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(Expiry.writing((String id, ImportJob job) -> job.getStatus() == ImportJob.Status.RUNNING ? RUNNING : retention))
+                .maximumSize(1_000)
+                .build();
+    }
+
+    public ImportJob find(String id) {
+        var job = jobs.getIfPresent(id);
+        if (job == null) throw new ImportJobNotFoundException(id);
+        return job;
+    }
+
+    public Collection<ImportJob> findAll() {
+        return jobs.asMap().values();
+    }
+
+    public ImportJob importPlanets(InputStream body) {
+        var job = new ImportJob(maxErrors);
+        jobs.put(job.getId(), job);
+        try {
+            read(job, body);
+        } catch (RuntimeException | Error exception) {
+            job.fail(exception.getMessage());
+            throw exception;
+        } finally {
+            // re-put so the finished job's retention starts now
+            jobs.put(job.getId(), job);
+        }
+        return job;
+    }
+
+    private void read(ImportJob job, InputStream body) {
+        List<Long> lines = new ArrayList<>(chunkSize);
+        List<PlanetRequest> chunk = new ArrayList<>(chunkSize);
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                long line = parser.currentTokenLocation().getLineNr();
+                job.read();
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    job.failed(new ImportJob.LineError(line, "Expected a JSON object", null));
+                    continue;
+                }
+                try {
+                    chunk.add(reader.readValue(parser));
+                    lines.add(line);
+                } catch (DatabindException exception) {
+                    // binding failed part way through the object: move on to the next root value
+                    while (!parser.getParsingContext().inRoot()) parser.nextToken();
+                    job.failed(new ImportJob.LineError(line, exception.getOriginalMessage(), null));
+                }
+                if (chunk.size() == chunkSize) write(job, chunk, lines);
+            }
+            write(job, chunk, lines);
+            job.complete();
+        } catch (IOException exception) {
+            write(job, chunk, lines);
+            job.fail(exception.getMessage());
+        }
+    }
+
+    private void write(ImportJob job, List<PlanetRequest> chunk, List<Long> lines) {
+        if (chunk.isEmpty()) return;
+        var result = service.createAll(chunk);
+        job.imported(result.created());
+        result.items().stream()
+                .filter(item -> item.planet() == null)
+                .forEach(item -> job.failed(new ImportJob.LineError(lines.get(item.index()), "Validation failed", item.errors())));
+        chunk.clear();
+        lines.clear();
+    }
+}
@@ -0,0 +1,152 @@
+package com.mrb.sw_planet_api.service.index;
+
+import com.mrb.sw_planet_api.dto.FacetCountsResponse;
+import com.mrb.sw_planet_api.model.FacetTokens;
+import com.mrb.sw_planet_api.model.Planet;
+import com.mrb.sw_planet_api.repository.PlanetRepository;
+import com.mrb.sw_planet_api.repository.projection.PlanetFacetCount;
+import com.mrb.sw_planet_api.repository.projection.PlanetFacetView;
+import com.mrb.sw_planet_api.service.event.PlanetChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-token planet counts for {@code climate} and {@code terrain}, always on and independent
+ * of {@link PlanetFacetIndex}, so unfiltered facet counts are a copy of two maps sized by the
+ * number of facets. Filtered counts run {@link PlanetRepository#countFacets} with the filter,
+ * whose result is one row per distinct value pair rather than per planet.
+ * <p>
+ * The tokens of every planet are kept by id, so each {@link PlanetChangedEvent} is applied as a
+ * delta whether or not it carries the old row: the id's previous tokens are subtracted and the
+ * new ones added. A full rebuild runs on startup and then at most every
+ * {@code planets.facets.resync}, to pick up writes made by other instances; events delivered
+ * while it scans are replayed on top of it, so a write it read past is not lost.
+ */
+@Component
+public class PlanetFacetCounts {
+
+    private record Tokens(Set<String> climate, Set<String> terrain) {}
+
+    private static final int REBUILD_CHUNK = 1_000;
+
+    private final PlanetRepository repository;
+    private final long resyncNanos;
+    private final Object lock = new Object();
+    private final Map<Long, Tokens> planets = new HashMap<>();
+    private final Map<String, Long> climate = new HashMap<>();
+    private final Map<String, Long> terrain = new HashMap<>();
+    // Events seen while a rebuild scans, replayed once it is installed; null when no rebuild runs
+    private List<PlanetChangedEvent> replay;
+    private boolean ready;
+    private long builtAt;
+
+    public PlanetFacetCounts(PlanetRepository repository,
+                             @Value("${planets.facets.resync:10m}") Duration resync) {
+        this.repository = repository;
+        this.resyncNanos = resync.toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (lock) {
+            if (replay != null) return;
+            replay = new ArrayList<>();
+        }
+        Map<Long, Tokens> scanned = new HashMap<>();
+        try {
+            long lastId = 0L;
+            List<PlanetFacetView> chunk;
+            do {
+                chunk = repository.findFacetsByIdGreaterThanOrderByIdAsc(lastId, Limit.of(REBUILD_CHUNK));
+                for (PlanetFacetView view : chunk) {
+                    scanned.put(view.getId(), tokens(view.getClimate(), view.getTerrain()));
+                    lastId = view.getId();
+                }
+            } while (chunk.size() == REBUILD_CHUNK);
+        } catch (RuntimeException exception) {
+            synchronized (lock) {
+                replay = null;
+            }
+            throw exception;
+        }
+        synchronized (lock) {
+            planets.clear();
+            climate.clear();
+            terrain.clear();
+            scanned.forEach(this::put);
+            replay.forEach(this::apply);
+            replay = null;
+            ready = true;
+            builtAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Returns the counts of the planets matching {@code filter}, or of all planets when it is null.
+     */
+    public FacetCountsResponse counts(Specification<Planet> filter) {
+        if (filter != null) return tally(repository.countFacets(filter));
+        boolean resync;
+        synchronized (lock) {
+            resync = !ready || System.nanoTime() - builtAt >= resyncNanos;
+        }
+        if (resync) rebuild();
+        synchronized (lock) {
+            if (ready) return new FacetCountsResponse(climate, terrain);
+        }
+        // the first build is still scanning on another thread
+        return tally(repository.countFacets(null));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlanetChanged(PlanetChangedEvent event) {
+        synchronized (lock) {
+            if (replay != null) replay.add(event);
+            apply(event);
+        }
+    }
+
+    // Idempotent per id, so replaying an event the rebuild already saw changes nothing
+    private void apply(PlanetChangedEvent event) {
+        remove(event.id());
+        if (event.after() != null) put(event.id(), tokens(event.after().getClimate(), event.after().getTerrain()));
+    }
+
+    private void put(Long id, Tokens tokens) {
+        planets.put(id, tokens);
+        tokens.climate().forEach(token -> climate.merge(token, 1L, Long::sum));
+        tokens.terrain().forEach(token -> terrain.merge(token, 1L, Long::sum));
+    }
+
+    private void remove(Long id) {
+        var tokens = planets.remove(id);
+        if (tokens == null) return;
+        tokens.climate().forEach(token -> climate.computeIfPresent(token, (key, count) -> count == 1 ? null : count - 1));
+        tokens.terrain().forEach(token -> terrain.computeIfPresent(token, (key, count) -> count == 1 ? null : count - 1));
+    }
+
+    private static Tokens tokens(String climate, String terrain) {
+        return new Tokens(FacetTokens.of(climate), FacetTokens.of(terrain));
+    }
+
+    private static FacetCountsResponse tally(List<PlanetFacetCount> rows) {
+        Map<String, Long> climates = new HashMap<>();
+        Map<String, Long> terrains = new HashMap<>();
+        for (PlanetFacetCount row : rows) {
+            FacetTokens.of(row.climate()).forEach(token -> climates.merge(token, row.planets(), Long::sum));
+            FacetTokens.of(row.terrain()).forEach(token -> terrains.merge(token, row.planets(), Long::sum));
+        }
+        return new FacetCountsResponse(climates, terrains);
+    }
+}
@@ -0,0 +1,199 @@
+package com.mrb.sw_planet_api.service.index;
+
+import com.mrb.sw_planet_api.model.FacetTokens;
+import com.mrb.sw_planet_api.repository.PlanetRepository;
+import com.mrb.sw_planet_api.repository.projection.PlanetFacetView;
+import com.mrb.sw_planet_api.service.event.PlanetChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitmap index over tokenized {@code climate} and {@code terrain} values: a facet
+ * dictionary maps every token to a {@link BitSet} of planet ids, so token AND/OR filters are
+ * answered with bitwise operations instead of SQL.
+ * <p>
+ * Built on startup and kept current through {@link PlanetChangedEvent}s, like
+ * {@link PlanetNameIndex}; enable it for single-node deployments only. Bitmap positions are
+ * ints, so once a planet id exceeds {@link Integer#MAX_VALUE} the index stops being ready and
+ * every filter falls back to SQL until the next rebuild.
+ */
+@Component
+public class PlanetFacetIndex {
+
+    public enum Facet { CLIMATE, TERRAIN }
+
+    private record Tokens(Set<String> climate, Set<String> terrain) {}
+
+    private static final Logger log = LoggerFactory.getLogger(PlanetFacetIndex.class);
+    private static final int REBUILD_CHUNK = 1_000;
+
+    private final PlanetRepository repository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Tokens> planets = new HashMap<>();
+    private final BitSet all = new BitSet();
+    private final Map<Facet, Map<String, BitSet>> dictionary = new EnumMap<>(Map.of(
+            Facet.CLIMATE, new HashMap<>(),
+            Facet.TERRAIN, new HashMap<>()));
+    private volatile boolean ready;
+    // Set once an id does not fit a bitmap position; later events are ignored until a rebuild
+    private volatile boolean overflowed;
+
+    public PlanetFacetIndex(PlanetRepository repository,
+                            @Value("${planets.facet-index.enabled:false}") boolean enabled) {
+        this.repository = repository;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) return;
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            planets.clear();
+            all.clear();
+            dictionary.values().forEach(Map::clear);
+            overflowed = false;
+            long lastId = 0L;
+            List<PlanetFacetView> chunk;
+            do {
+                chunk = repository.findFacetsByIdGreaterThanOrderByIdAsc(lastId, Limit.of(REBUILD_CHUNK));
+                for (PlanetFacetView view : chunk) {
+                    if (!fits(view.getId())) return;
+                    put(view.getId(), view.getClimate(), view.getTerrain());
+                    lastId = view.getId();
+                }
+            } while (chunk.size() == REBUILD_CHUNK);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlanetChanged(PlanetChangedEvent event) {
+        if (!enabled || overflowed) return;
+        lock.writeLock().lock();
+        try {
+            if (overflowed || !fits(event.id())) return;
+            remove(event.id());
+            if (event.after() != null) put(event.id(), event.after().getClimate(), event.after().getTerrain());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids matching the climate and terrain tokens. Within a facet the tokens are
+     * combined with AND when {@code all} is set and with OR otherwise; an empty token set
+     * leaves that facet unconstrained. The returned bitmap is a private copy.
+     */
+    public BitSet match(Set<String> climateTokens, Set<String> terrainTokens, boolean all) {
+        lock.readLock().lock();
+        try {
+            BitSet result = (BitSet) this.all.clone();
+            result.and(match(Facet.CLIMATE, climateTokens, all));
+            result.and(match(Facet.TERRAIN, terrainTokens, all));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<String> tokens(Facet facet) {
+        lock.readLock().lock();
+        try {
+            return Set.copyOf(dictionary.get(facet).keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns how many of the planets in {@code within} carry each token of {@code facet};
+     * tokens with no such planet are left out.
+     */
+    public Map<String, Long> counts(Facet facet, BitSet within) {
+        lock.readLock().lock();
+        try {
+            Map<String, Long> result = new HashMap<>();
+            dictionary.get(facet).forEach((token, ids) -> {
+                if (!ids.intersects(within)) return;
+                var matched = (BitSet) ids.clone();
+                matched.and(within);
+                result.put(token, (long) matched.cardinality());
+            });
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet match(Facet facet, Set<String> tokens, boolean all) {
+        if (tokens.isEmpty()) return this.all;
+        BitSet result = null;
+        for (String token : tokens) {
+            BitSet ids = dictionary.get(facet).getOrDefault(token, new BitSet());
+            if (result == null) {
+                result = (BitSet) ids.clone();
+            } else if (all) {
+                result.and(ids);
+            } else {
+                result.or(ids);
+            }
+        }
+        return result;
+    }
+
+    // Called under the write lock; an id past the int range stands the index down instead of failing the event
+    private boolean fits(Long id) {
+        if (id >= 0 && id <= Integer.MAX_VALUE) return true;
+        overflowed = true;
+        ready = false;
+        log.warn("Planet id {} does not fit the facet index bitmaps; token filters fall back to SQL", id);
+        return false;
+    }
+
+    private void put(Long id, String climate, String terrain) {
+        int bit = Math.toIntExact(id);
+        var tokens = new Tokens(FacetTokens.of(climate), FacetTokens.of(terrain));
+        planets.put(id, tokens);
+        all.set(bit);
+        tokens.climate().forEach(token -> set(Facet.CLIMATE, token, bit));
+        tokens.terrain().forEach(token -> set(Facet.TERRAIN, token, bit));
+    }
+
+    private void remove(Long id) {
+        var tokens = planets.remove(id);
+        if (tokens == null) return;
+        int bit = Math.toIntExact(id);
+        all.clear(bit);
+        tokens.climate().forEach(token -> clear(Facet.CLIMATE, token, bit));
+        tokens.terrain().forEach(token -> clear(Facet.TERRAIN, token, bit));
+    }
+
+    private void set(Facet facet, String token, int bit) {
+        dictionary.get(facet).computeIfAbsent(token, key -> new BitSet()).set(bit);
+    }
+
+    private void clear(Facet facet, String token, int bit) {
+        dictionary.get(facet).computeIfPresent(token, (key, ids) -> {
+            ids.clear(bit);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+}
@@ -0,0 +1,147 @@
+package com.mrb.sw_planet_api.service.index;
+
+import com.mrb.sw_planet_api.repository.PlanetRepository;
+import com.mrb.sw_planet_api.repository.projection.PlanetNameView;
+import com.mrb.sw_planet_api.service.event.PlanetChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process trigram index over {@code Planet.name}, used to resolve substring lookups
+ * to candidate ids without a {@code LOWER(name) LIKE '%x%'} table scan.
+ * <p>
+ * Built once on startup and kept current through {@link PlanetChangedEvent}s, so it only
+ * sees writes made through this instance: enable it for single-node deployments only.
+ */
+@Component
+public class PlanetNameIndex {
+
+    private static final int GRAM = 3;
+    private static final int REBUILD_CHUNK = 1_000;
+
+    private final PlanetRepository repository;
+    private final boolean enabled;
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public PlanetNameIndex(PlanetRepository repository,
+                           @Value("${planets.name-index.enabled:false}") boolean enabled) {
+        this.repository = repository;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) return;
+        ready = false;
+        names.clear();
+        postings.clear();
+        long lastId = 0L;
+        List<PlanetNameView> chunk;
+        do {
+            chunk = repository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(REBUILD_CHUNK));
+            for (PlanetNameView view : chunk) {
+                put(view.getId(), view.getName());
+                lastId = view.getId();
+            }
+        } while (chunk.size() == REBUILD_CHUNK);
+        ready = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlanetChanged(PlanetChangedEvent event) {
+        if (!enabled) return;
+        if (event.after() == null) {
+            remove(event.id());
+        } else {
+            put(event.id(), event.after().getName());
+        }
+    }
+
+    /**
+     * Returns the ids of every planet whose name contains {@code query}, ignoring case,
+     * ranked exact match first, then prefix, then substring; ties ordered by name and id.
+     */
+    public List<Long> search(String query) {
+        String needle = normalize(query);
+        Collection<Long> candidates = names.keySet();
+        if (needle.length() >= GRAM) {
+            Set<Long> smallest = null;
+            for (String gram : grams(needle)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) return List.of();
+                if (smallest == null || ids.size() < smallest.size()) smallest = ids;
+            }
+            candidates = smallest;
+        }
+        List<Map.Entry<Long, String>> matches = new ArrayList<>();
+        for (Long id : candidates) {
+            String name = names.get(id);
+            if (name != null && name.contains(needle)) matches.add(Map.entry(id, name));
+        }
+        matches.sort(Comparator.<Map.Entry<Long, String>>comparingInt(match -> rank(match.getValue(), needle))
+                .thenComparing(Map.Entry::getValue)
+                .thenComparing(Map.Entry::getKey));
+        return matches.stream().map(Map.Entry::getKey).toList();
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    void put(Long id, String name) {
+        String normalized = normalize(name);
+        String previous = names.put(id, normalized);
+        if (previous != null) unlink(id, previous);
+        for (String gram : grams(normalized)) {
+            postings.compute(gram, (key, ids) -> {
+                if (ids == null) ids = ConcurrentHashMap.newKeySet();
+                ids.add(id);
+                return ids;
+            });
+        }
+    }
+
+    void remove(Long id) {
+        String previous = names.remove(id);
+        if (previous != null) unlink(id, previous);
+    }
+
+    private void unlink(Long id, String name) {
+        for (String gram : grams(name)) {
+            postings.computeIfPresent(gram, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static int rank(String name, String needle) {
+        if (name.equals(needle)) return 0;
+        return name.startsWith(needle) ? 1 : 2;
+    }
+
+    private static Set<String> grams(String value) {
+        if (value.length() < GRAM) return Set.of();
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,62 @@
+package com.mrb.sw_planet_api.service.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Times the listing queries behind searches and name matches as {@code planets.query}, with the
+ * row read ({@code phase=data}) and its COUNT ({@code phase=count}) as separate series, and
+ * records rows returned per read as {@code planets.rows}.
+ * <p>
+ * Tags are the fixed query names the service passes in, never request values, so the number of
+ * series stays bounded whatever clients search for.
+ */
+@Component
+public class PlanetQueryMetrics {
+
+    private record Series(String query, String phase) {}
+
+    private final MeterRegistry registry;
+    private final Map<Series, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> rows = new ConcurrentHashMap<>();
+
+    public PlanetQueryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> T data(String query, Supplier<T> read) {
+        T result = timer(query, "data").record(read);
+        rows.computeIfAbsent(query, tag -> DistributionSummary.builder("planets.rows")
+                        .tag("query", tag)
+                        .register(registry))
+                .record(rowCount(result));
+        return result;
+    }
+
+    public long count(String query, LongSupplier count) {
+        return timer(query, "count").record(count);
+    }
+
+    private Timer timer(String query, String phase) {
+        return timers.computeIfAbsent(new Series(query, phase), series -> Timer.builder("planets.query")
+                .tag("query", series.query())
+                .tag("phase", series.phase())
+                .register(registry));
+    }
+
+    private static int rowCount(Object result) {
+        if (result instanceof Slice<?> slice) return slice.getNumberOfElements();
+        if (result instanceof Window<?> window) return window.size();
+        if (result instanceof Collection<?> collection) return collection.size();
+        return result == null ? 0 : 1;
+    }
+}
@@ -0,0 +1,46 @@
+package com.mrb.sw_planet_api.service.reactive;
+
+import com.mrb.sw_planet_api.dto.PlanetResponse;
+import com.mrb.sw_planet_api.exception.PlanetNotFoundException;
+import com.mrb.sw_planet_api.mapper.PlanetMapper;
+import com.mrb.sw_planet_api.repository.reactive.ReactivePlanetRepository;
+import com.mrb.sw_planet_api.repository.specification.MatchMode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only counterpart of {@code PlanetService} for the reactive API. Nothing here blocks, so
+ * no request thread or JDBC connection is held while a query or a slow client is pending.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactivePlanetService {
+
+    private final ReactivePlanetRepository repository;
+
+    public Mono<PlanetResponse> findById(Long id) {
+        return repository.findById(id)
+                .map(PlanetMapper::toResponse)
+                .switchIfEmpty(Mono.error(() -> new PlanetNotFoundException(id)));
+    }
+
+    public Mono<Slice<PlanetResponse>> findSlice(String climate, String terrain, MatchMode match, Pageable pageable) {
+        return repository.findPage(climate, terrain, match, pageable)
+                .map(PlanetMapper::toResponse)
+                .collectList()
+                .map(rows -> {
+                    boolean hasNext = rows.size() > pageable.getPageSize();
+                    return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+                });
+    }
+
+    public Flux<PlanetResponse> stream(String climate, String terrain, MatchMode match) {
+        return repository.streamAll(climate, terrain, match)
+                .map(PlanetMapper::toResponse);
+    }
+}
@@ -3,12 +3,21 @@ package com.mrb.sw_planet_api;
 import com.mrb.sw_planet_api.dto.PlanetPatchRequest;
 import com.mrb.sw_planet_api.dto.PlanetRequest;
 import com.mrb.sw_planet_api.dto.PlanetResponse;
+import com.mrb.sw_planet_api.repository.specification.MatchMode;
+import com.mrb.sw_planet_api.service.PlanetService;
+import jakarta.persistence.EntityManagerFactory;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,14 +28,37 @@ import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"})
 @ActiveProfiles("test")
+@AutoConfigureObservability(tracing = false)
 @Sql(scripts = "/data-test.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
 public class StarWarsApplicationIT {
 
     @Autowired
     private TestRestTemplate testRestTemplate;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlanetService planetService;
+
+    private long statementsFor(Runnable request) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        request.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Counted by the datasource proxy on the calling thread, so the call has to run here rather than over HTTP
+    private long queriesFor(Runnable call) {
+        QueryCountHolder.clear();
+        call.run();
+        return QueryCountHolder.getGrandTotal().getTotal();
+    }
+
     @Test
     void createPlanet_ReturnsCreated() {
         var planet = new PlanetRequest("Tatooine", "arid", "desert");
@@ -38,6 +70,87 @@ public class StarWarsApplicationIT {
         assertThat(sut.getBody().getTerrain()).isEqualTo("desert");
     }
 
+    @Test
+    void createPlanets_ReturnsPerItemResults() {
+        record Item(int index, int status, PlanetResponse planet, Map<String, List<String>> errors) {}
+        record BulkResult(int created, int failed, List<Item> items) {}
+        var planets = List.of(
+                new PlanetRequest("Jakku", "arid", "desert"),
+                new PlanetRequest("", "arid", "desert"),
+                new PlanetRequest("Scarif", "tropical", "ocean"));
+        ResponseEntity<BulkResult> sut = testRestTemplate.postForEntity("/planets/bulk", planets, BulkResult.class);
+        assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.MULTI_STATUS);
+        assertThat(sut.getBody().created()).isEqualTo(2);
+        assertThat(sut.getBody().items()).extracting(Item::status).containsExactly(201, 400, 201);
+
+        ResponseEntity<PlanetResponse> scarif = testRestTemplate.getForEntity(
+                "/planets/{id}", PlanetResponse.class, sut.getBody().items().get(2).planet().getId());
+        assertThat(scarif.getBody().getName()).isEqualTo("Scarif");
+    }
+
+    @Test
+    void importPlanets_ReturnsJobStatus() {
+        record Job(String id, String status, long lines, long imported, long failed) {}
+        var headers = new HttpHeaders();
+        headers.setContentType(org.springframework.http.MediaType.APPLICATION_NDJSON);
+        var body = """
+                {"name":"Crait","climate":"arid","terrain":"salt flats"}
+                {"name":"","climate":"frozen","terrain":"ice"}
+                """;
+        ResponseEntity<Job> sut = testRestTemplate.postForEntity("/planets/import", new HttpEntity<>(body, headers), Job.class);
+        assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sut.getBody().lines()).isEqualTo(2);
+        assertThat(sut.getBody().imported()).isEqualTo(1);
+        assertThat(sut.getBody().failed()).isEqualTo(1);
+
+        ResponseEntity<Job> job = testRestTemplate.getForEntity(sut.getHeaders().getLocation(), Job.class);
+        assertThat(job.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(job.getBody().status()).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void exportPlanets_StreamsEveryRow() {
+        ResponseEntity<String> sut = testRestTemplate.getForEntity("/planets/export?format=NDJSON", String.class);
+        assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sut.getBody().lines().toList())
+                .hasSizeGreaterThanOrEqualTo(10)
+                .allMatch(line -> line.startsWith("{\"id\":"))
+                .anyMatch(line -> line.contains("\"name\":\"Mustafar\""));
+    }
+
+    @Test
+    void exportPlanets_WithUnknownFormat_ReturnsBadRequest() {
+        ResponseEntity<Map<String, Object>> sut = testRestTemplate.exchange("/planets/export?format=xml", HttpMethod.GET, null,
+                new ParameterizedTypeReference<>() {});
+        assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(sut.getBody())
+                .containsEntry("message", "Invalid value 'xml' for parameter 'format'")
+                .containsEntry("fieldErrors", Map.of("format", List.of("must be one of NDJSON, CSV")));
+    }
+
+    @Test
+    void bulkPatchAndDelete_ReturnAffectedRows() {
+        record Item(PlanetResponse planet) {}
+        record Bulk(List<Item> items) {}
+        record Affected(int affected) {}
+        var created = testRestTemplate.postForEntity("/planets/bulk", List.of(
+                new PlanetRequest("Ilum", "frigid", "glaciers"),
+                new PlanetRequest("Exegol", "frigid", "glaciers")), Bulk.class);
+        List<Long> ids = created.getBody().items().stream().map(item -> item.planet().getId()).toList();
+
+        ResponseEntity<Affected> patched = testRestTemplate.exchange("/planets", HttpMethod.PATCH,
+                new HttpEntity<>(Map.of("ids", ids, "changes", Map.of("terrain", "ice fields"))), Affected.class);
+        assertThat(patched.getBody().affected()).isEqualTo(2);
+        assertThat(testRestTemplate.getForEntity("/planets/{id}", PlanetResponse.class, ids.get(0)).getBody().getTerrain())
+                .isEqualTo("ice fields");
+
+        ResponseEntity<Affected> deleted = testRestTemplate.exchange("/planets?climate={climate}&match=EXACT",
+                HttpMethod.DELETE, null, Affected.class, "frigid");
+        assertThat(deleted.getBody().affected()).isEqualTo(2);
+        assertThat(testRestTemplate.getForEntity("/planets/{id}", PlanetResponse.class, ids.get(1)).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
     @Test
     void findPlanetById_ReturnsOk() {
         ResponseEntity<PlanetResponse> sut = testRestTemplate.getForEntity("/planets/{id}", PlanetResponse.class, 1L);
@@ -48,6 +161,16 @@ public class StarWarsApplicationIT {
         assertThat(sut.getBody().getTerrain()).isEqualTo("desert");
     }
 
+    @Test
+    void findPlanetsById_ReturnsPlanetsInRequestOrder() {
+        record BatchGet(List<PlanetResponse> planets, List<Long> missing) {}
+        ResponseEntity<BatchGet> sut = testRestTemplate.postForEntity(
+                "/planets/batch-get", Map.of("ids", List.of(8L, 2L, 9999L)), BatchGet.class);
+        assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sut.getBody().planets()).extracting(PlanetResponse::getName).containsExactly("Mustafar", "Hoth");
+        assertThat(sut.getBody().missing()).containsExactly(9999L);
+    }
+
     @Test
     void findPlanetByName_ReturnsOk() {
         ResponseEntity<PlanetResponse> sut = testRestTemplate.getForEntity("/planets/name/{name}", PlanetResponse.class, "Mustafar");
@@ -58,6 +181,21 @@ public class StarWarsApplicationIT {
         assertThat(sut.getBody().getTerrain()).isEqualTo("volcano");
     }
 
+    @Test
+    void findPlanetsByName_ReturnsRankedMatches() {
+        record PageResponse<T>(List<T> content, long totalElements) {}
+        ParameterizedTypeReference<PageResponse<PlanetResponse>> responseType =
+                new ParameterizedTypeReference<>() {};
+
+        ResponseEntity<PageResponse<PlanetResponse>> sut = testRestTemplate.exchange(
+                "/planets/name/{name}/matches", HttpMethod.GET, null, responseType, "o");
+        assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sut.getBody()).isNotNull();
+        assertThat(sut.getBody().content())
+                .extracting(PlanetResponse::getName)
+                .isSortedAccordingTo(String::compareTo);
+    }
+
     @Test
     void findPlanetsByFilter_ReturnsOk() {
         record PageResponse<T>(
@@ -86,6 +224,60 @@ public class StarWarsApplicationIT {
         assertThat(sut.getBody().content().size()).isEqualTo(5);
     }
 
+    @Test
+    void findPlanetsByFilter_WithExactMatch_ReturnsOnlyExactClimate() {
+        record PageResponse<T>(List<T> content) {}
+        ResponseEntity<PageResponse<PlanetResponse>> sut = testRestTemplate.exchange(
+                "/planets/search?climate={climate}&match=EXACT",
+                HttpMethod.GET, null, new ParameterizedTypeReference<PageResponse<PlanetResponse>>() {}, "HOT");
+        assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sut.getBody().content()).extracting(PlanetResponse::getName).containsExactly("Mustafar");
+    }
+
+    @Test
+    void findPlanetsByFilter_WithoutCount_ReturnsSlice() {
+        ResponseEntity<Map<String, Object>> sut = testRestTemplate.exchange(
+                "/planets/search?climate={climate}&count=false&approximateTotal=true&size=2",
+                HttpMethod.GET, null, new ParameterizedTypeReference<Map<String, Object>>() {}, "temperate");
+        assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sut.getBody()).containsKey("content").doesNotContainKey("totalElements");
+        assertThat(sut.getHeaders().getFirst("X-Approximate-Total-Count")).isNotNull();
+    }
+
+    @Test
+    void findFacetCounts_ReturnsTokenCounts() {
+        record FacetCounts(Map<String, Long> climate, Map<String, Long> terrain) {}
+        ResponseEntity<FacetCounts> sut = testRestTemplate.getForEntity(
+                "/planets/facets?climate={climate}&match=ALL_TOKENS", FacetCounts.class, "hot");
+        assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sut.getBody().climate()).containsEntry("hot", 1L);
+        assertThat(sut.getBody().terrain()).containsEntry("volcano", 1L);
+    }
+
+    @Test
+    void findPlanetsByCursor_WalksEveryMatchOnce() {
+        record CursorPage<T>(List<T> content, boolean hasNext, String nextCursor) {}
+        ParameterizedTypeReference<CursorPage<PlanetResponse>> responseType =
+                new ParameterizedTypeReference<>() {};
+
+        List<PlanetResponse> planets = new java.util.ArrayList<>();
+        String cursor = "";
+        boolean hasNext = true;
+        while (hasNext) {
+            ResponseEntity<CursorPage<PlanetResponse>> sut = testRestTemplate.exchange(
+                    "/planets/search?climate={climate}&size=2&cursor={cursor}",
+                    HttpMethod.GET, null, responseType, "arid", cursor);
+            assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.OK);
+            planets.addAll(sut.getBody().content());
+            hasNext = sut.getBody().hasNext();
+            cursor = sut.getBody().nextCursor();
+        }
+        assertThat(planets).extracting(PlanetResponse::getId).doesNotHaveDuplicates();
+        assertThat(planets).extracting(PlanetResponse::getName)
+                .isSortedAccordingTo(String::compareTo)
+                .contains("Geonosis", "Tatooine");
+    }
+
     @Test
     void deleteById_ReturnsOk() {
         ParameterizedTypeReference<Map<String, String>> responseType =
@@ -98,6 +290,35 @@ public class StarWarsApplicationIT {
         assertThat(sut.getBody()).containsEntry("message", "Planet deleted successfully");
     }
 
+    @Test
+    void updateAndDelete_RunOneStatementEach() {
+        var created = testRestTemplate.postForEntity("/planets", new PlanetRequest("Lothal", "temperate", "grasslands"), PlanetResponse.class);
+        Long id = created.getBody().getId();
+
+        long updateStatements = statementsFor(() -> assertThat(testRestTemplate.exchange("/planets/{id}", HttpMethod.PUT,
+                new HttpEntity<>(new PlanetRequest("Lothal", "temperate", "plains")), PlanetResponse.class, id)
+                .getStatusCode()).isEqualTo(HttpStatus.OK));
+        long deleteStatements = statementsFor(() -> assertThat(testRestTemplate.exchange("/planets/{id}", HttpMethod.DELETE,
+                null, Map.class, id).getStatusCode()).isEqualTo(HttpStatus.OK));
+        long missingStatements = statementsFor(() -> assertThat(testRestTemplate.exchange("/planets/{id}", HttpMethod.DELETE,
+                null, Map.class, id).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+
+        assertThat(updateStatements).isEqualTo(1);
+        assertThat(deleteStatements).isEqualTo(1);
+        assertThat(missingStatements).isEqualTo(1);
+    }
+
+    @Test
+    void patch_RunsSelectAndDynamicUpdate() {
+        var created = testRestTemplate.postForEntity("/planets", new PlanetRequest("Ryloth", "arid", "mountains"), PlanetResponse.class);
+
+        long statements = statementsFor(() -> assertThat(testRestTemplate.exchange("/planets/{id}", HttpMethod.PATCH,
+                new HttpEntity<>(new PlanetPatchRequest(null, "humid", null)), PlanetResponse.class, created.getBody().getId())
+                .getStatusCode()).isEqualTo(HttpStatus.OK));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
     @Test
     void patch_ReturnsOk() {
         ResponseEntity<PlanetResponse> sut = testRestTemplate.exchange(
@@ -126,5 +347,98 @@ public class StarWarsApplicationIT {
         assertThat(sut.getBody().getTerrain()).isEqualTo("forest");
     }
 
+    @Test
+    void conditionalRequests_UseVersionAsETag() {
+        var created = testRestTemplate.postForEntity(
+                "/planets", new PlanetRequest("Mustafar", "scorching", "lava"), PlanetResponse.class);
+        assertThat(created.getHeaders().getETag()).isEqualTo("\"0\"");
+        Long id = created.getBody().getId();
 
+        var ifMatch = new HttpHeaders();
+        ifMatch.setIfMatch("\"0\"");
+        ResponseEntity<PlanetResponse> updated = testRestTemplate.exchange(
+                "/planets/{id}", HttpMethod.PUT,
+                new HttpEntity<>(new PlanetRequest("Mustafar", "scorching", "volcanic"), ifMatch),
+                PlanetResponse.class, id);
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(updated.getHeaders().getETag()).isEqualTo("\"1\"");
+
+        ResponseEntity<String> stale = testRestTemplate.exchange(
+                "/planets/{id}", HttpMethod.PATCH,
+                new HttpEntity<>(new PlanetPatchRequest(null, "molten", null), ifMatch),
+                String.class, id);
+        assertThat(stale.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        var ifNoneMatch = new HttpHeaders();
+        ifNoneMatch.setIfNoneMatch("\"1\"");
+        ResponseEntity<String> notModified = testRestTemplate.exchange(
+                "/planets/{id}", HttpMethod.GET, new HttpEntity<>(ifNoneMatch), String.class, id);
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(notModified.getBody()).isNull();
+    }
+
+    @Test
+    void reactiveReads_MatchTheBlockingApi() {
+        record SliceResponse(List<PlanetResponse> content, boolean last) {}
+        ResponseEntity<PlanetResponse> blocking = testRestTemplate.getForEntity("/planets/{id}", PlanetResponse.class, 1L);
+        ResponseEntity<PlanetResponse> reactive = testRestTemplate.getForEntity("/reactive/planets/{id}", PlanetResponse.class, 1L);
+        assertThat(reactive.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(reactive.getBody()).usingRecursiveComparison().isEqualTo(blocking.getBody());
+
+        ResponseEntity<SliceResponse> page = testRestTemplate.getForEntity(
+                "/reactive/planets/search?climate={climate}&match=ALL_TOKENS&size=1", SliceResponse.class, "hot");
+        assertThat(page.getBody().content()).extracting(PlanetResponse::getName).containsExactly("Mustafar");
+
+        ResponseEntity<String> missing = testRestTemplate.getForEntity("/reactive/planets/{id}", String.class, 999_999L);
+        assertThat(missing.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void streamPlanets_WritesNdjsonLines() {
+        var headers = new HttpHeaders();
+        headers.setAccept(List.of(org.springframework.http.MediaType.APPLICATION_NDJSON));
+        ResponseEntity<String> sut = testRestTemplate.exchange(
+                "/reactive/planets/search/stream?climate={climate}&match=EXACT", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class, "temperate");
+        assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sut.getBody().lines()).allMatch(line -> line.contains("\"climate\":\"temperate\""));
+        assertThat(sut.getBody().lines()).isNotEmpty();
+    }
+
+    @Test
+    void prometheus_ExposesRequestServiceAndQueryTimers() {
+        testRestTemplate.getForEntity("/planets/search?count=true&size=1&page=3&sort=id", String.class);
+
+        ResponseEntity<String> sut = testRestTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertThat(sut.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sut.getBody()).contains(
+                "http_server_requests_seconds_bucket{",
+                "planets_service_seconds_count{",
+                "phase=\"data\",query=\"search\"",
+                "phase=\"count\",query=\"search\"",
+                "planets_rows_bucket{",
+                "spring_data_repository_invocations_seconds_bucket{",
+                "hikaricp_connections_acquire_seconds_bucket{");
+    }
+
+    @Test
+    void planetService_StaysWithinQueryBudgets() {
+        var created = new PlanetResponse[1];
+        assertThat(queriesFor(() -> created[0] = planetService.create(new PlanetRequest("Jakku", "ashen", "desert")))).isEqualTo(1);
+        Long id = created[0].getId();
+        var onePerPage = PageRequest.of(0, 1);
+
+        assertThat(queriesFor(() -> planetService.findById(id))).isLessThanOrEqualTo(1);
+        assertThat(queriesFor(() -> planetService.findAllById(List.of(id, 2L, 3L)))).isLessThanOrEqualTo(1);
+        assertThat(queriesFor(() -> planetService.findByName("Jakku"))).isLessThanOrEqualTo(1);
+        assertThat(queriesFor(() -> planetService.findMatches("Jakku", PageRequest.of(0, 20)))).isLessThanOrEqualTo(1);
+        assertThat(queriesFor(() -> planetService.find("ashen", null, MatchMode.EXACT, onePerPage))).isLessThanOrEqualTo(2);
+        assertThat(queriesFor(() -> planetService.findSlice("ashen", null, MatchMode.EXACT, onePerPage))).isLessThanOrEqualTo(1);
+        assertThat(queriesFor(() -> planetService.find("ashen", null, MatchMode.EXACT, null, 1))).isLessThanOrEqualTo(1);
+        assertThat(queriesFor(() -> planetService.facetCounts("ashen", null, MatchMode.EXACT))).isLessThanOrEqualTo(1);
+        assertThat(queriesFor(() -> planetService.patch(id, new PlanetPatchRequest(null, null, "sand")))).isLessThanOrEqualTo(2);
+        assertThat(queriesFor(() -> planetService.update(id, new PlanetRequest("Jakku", "ashen", "dunes")))).isLessThanOrEqualTo(1);
+        assertThat(queriesFor(() -> planetService.delete(id))).isLessThanOrEqualTo(1);
+    }
 }
@@ -1,11 +1,20 @@
 package com.mrb.sw_planet_api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mrb.sw_planet_api.dto.BatchGetResponse;
+import com.mrb.sw_planet_api.dto.BulkCreateResponse;
+import com.mrb.sw_planet_api.dto.BulkItemResult;
+import com.mrb.sw_planet_api.dto.FacetCountsResponse;
+import com.mrb.sw_planet_api.dto.PlanetCursor;
 import com.mrb.sw_planet_api.dto.PlanetPatchRequest;
 import com.mrb.sw_planet_api.dto.PlanetRequest;
 import com.mrb.sw_planet_api.dto.PlanetResponse;
 import com.mrb.sw_planet_api.exception.PlanetNotFoundException;
+import com.mrb.sw_planet_api.exception.PlanetVersionMismatchException;
+import com.mrb.sw_planet_api.model.Planet;
+import com.mrb.sw_planet_api.repository.specification.MatchMode;
 import com.mrb.sw_planet_api.service.PlanetService;
+import com.mrb.sw_planet_api.service.cache.PlanetModificationCounter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,9 +22,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -36,6 +48,9 @@ public class PlanetControllerTest {
     @MockitoBean
     private PlanetService planetService;
 
+    @MockitoBean
+    private PlanetModificationCounter planetModificationCounter;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -171,12 +186,45 @@ public class PlanetControllerTest {
         verifyNoMoreInteractions(planetService);
     }
 
+    @Test
+    @DisplayName("GET /planets/name/{name} 404 body should keep every ErrorResponse field and escape the name")
+    void findPlanetByName_NotFoundBody_KeepsErrorResponseFields() throws Exception {
+        when(planetService.findByName(anyString()))
+                .thenThrow(new PlanetNotFoundException("say \"hi\""));
+        mockMvc.perform(get(URI + "/name/{name}", "say \"hi\""))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.timestamp").isString())
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.error").value(HttpStatus.NOT_FOUND.getReasonPhrase()))
+                .andExpect(jsonPath("$.path").value("/planets/name/say%20%22hi%22"))
+                .andExpect(jsonPath("$.message").value("Planet not found with name say \"hi\""))
+                .andExpect(jsonPath("$.fieldErrors").doesNotExist())
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("GET /planets/name/{name}/matches should return a ranked page and 200")
+    void findPlanetsByName_ShouldReturnOk() throws Exception {
+        PageImpl<PlanetResponse> planetPage = new PageImpl<>(List.of(response), Pageable.ofSize(15), 1);
+        when(planetService.findMatches(eq("tat"), any(Pageable.class))).thenReturn(planetPage);
+        mockMvc.perform(get(URI + "/name/tat/matches")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name").value("Tatooine"))
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andDo(print());
+        verify(planetService, times(1)).findMatches(eq("tat"), any(Pageable.class));
+        verifyNoMoreInteractions(planetService);
+    }
+
     @Test
     @DisplayName("GET /planets should return 200")
     void findPlanets_ShouldReturnOk() throws Exception {
         List<PlanetResponse> planets = List.of(response);
         PageImpl<PlanetResponse> planetPage = new PageImpl<>(planets, Pageable.unpaged(), planets.size());
-        when(planetService.find(anyString(), anyString(), any(Pageable.class))).thenReturn(planetPage);
+        when(planetService.find(anyString(), anyString(), any(MatchMode.class), any(Pageable.class))).thenReturn(planetPage);
         mockMvc.perform(get(URI + "/search?climate=arid&terrain=desert")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -188,7 +236,7 @@ public class PlanetControllerTest {
                 .andExpect(jsonPath("$.content[0].climate").value("arid"))
                 .andExpect(jsonPath("$.content[0].terrain").value("desert"))
                 .andDo(print());
-        verify(planetService, times(1)).find(anyString(), anyString(), any(Pageable.class));
+        verify(planetService, times(1)).find(anyString(), anyString(), any(MatchMode.class), any(Pageable.class));
         verifyNoMoreInteractions(planetService);
     }
 
@@ -196,16 +244,216 @@ public class PlanetControllerTest {
     @DisplayName("GET /planets should return 200 when empty page")
     void findPlanets_ShouldReturnBadRequest() throws Exception {
         PageImpl<PlanetResponse> emptyPage = new PageImpl<>(List.of(), Pageable.unpaged(), 0);
-        when(planetService.find(anyString(), anyString(), any(Pageable.class))).thenReturn(emptyPage);
+        when(planetService.find(anyString(), anyString(), any(MatchMode.class), any(Pageable.class))).thenReturn(emptyPage);
         mockMvc.perform(get(URI + "/search?climate=unknown&terrain=unknown")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content", hasSize(0)))
                 .andExpect(jsonPath("$.totalElements").value(0));
-        verify(planetService, times(1)).find(anyString(), anyString(), any(Pageable.class));
+        verify(planetService, times(1)).find(anyString(), anyString(), any(MatchMode.class), any(Pageable.class));
+        verifyNoMoreInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("GET /planets/search with match=EXACT should pass the match mode to the service")
+    void findPlanets_WithExactMatch_ShouldReturnOk() throws Exception {
+        PageImpl<PlanetResponse> planetPage = new PageImpl<>(List.of(response), Pageable.ofSize(15), 1);
+        when(planetService.find(eq("arid"), isNull(), eq(MatchMode.EXACT), any(Pageable.class))).thenReturn(planetPage);
+        mockMvc.perform(get(URI + "/search?climate=arid&match=EXACT")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andDo(print());
+        verify(planetService, times(1)).find(eq("arid"), isNull(), eq(MatchMode.EXACT), any(Pageable.class));
+        verifyNoMoreInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("GET /planets/search with an unknown match mode should return 400")
+    void findPlanets_WithUnknownMatch_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get(URI + "/search?climate=arid&match=foo")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value 'foo' for parameter 'match'"))
+                .andExpect(jsonPath("$.error").value(HttpStatus.BAD_REQUEST.getReasonPhrase()))
+                .andExpect(jsonPath("$.fieldErrors.match[0]").value("must be one of EXACT, PREFIX, CONTAINS, ALL_TOKENS, ANY_TOKEN"))
+                .andDo(print());
+        verifyNoInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("POST /planets/bulk should return 201 when every item was created")
+    void createPlanets_AllCreated_ShouldReturnCreated() throws Exception {
+        var result = BulkCreateResponse.of(List.of(BulkItemResult.created(0, response)));
+        when(planetService.createAll(anyList())).thenReturn(result);
+        mockMvc.perform(post(URI + "/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(request))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.items[0].planet.name").value(response.getName()))
+                .andDo(print());
+        verify(planetService, times(1)).createAll(anyList());
+        verifyNoMoreInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("POST /planets/bulk should return 207 with per-item results when some items failed")
+    void createPlanets_SomeInvalid_ShouldReturnMultiStatus() throws Exception {
+        var result = BulkCreateResponse.of(List.of(
+                BulkItemResult.created(0, response),
+                BulkItemResult.invalid(1, Map.of("name", List.of("must not be blank")))));
+        when(planetService.createAll(anyList())).thenReturn(result);
+        mockMvc.perform(post(URI + "/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(request, new PlanetRequest("", "arid", "desert")))))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[1].status").value(400))
+                .andExpect(jsonPath("$.items[1].errors.name[0]").value("must not be blank"))
+                .andDo(print());
+        verify(planetService, times(1)).createAll(anyList());
+        verifyNoMoreInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("POST /planets/bulk with an empty array should return 400")
+    void createPlanets_Empty_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post(URI + "/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+        verifyNoInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("POST /planets/batch-get should return the found planets and the missing ids")
+    void findPlanetsById_ShouldReturnOk() throws Exception {
+        when(planetService.findAllById(List.of(1L, 99L))).thenReturn(new BatchGetResponse(List.of(response), List.of(99L)));
+        mockMvc.perform(post(URI + "/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,99]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.planets", hasSize(1)))
+                .andExpect(jsonPath("$.missing[0]").value(99))
+                .andDo(print());
+        verify(planetService, times(1)).findAllById(List.of(1L, 99L));
+        verifyNoMoreInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("POST /planets/batch-get without ids should return 400")
+    void findPlanetsById_WithoutIds_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post(URI + "/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+        verifyNoInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("DELETE /planets?ids= should delete by ids and return the affected rows")
+    void deletePlanets_WithIds_ShouldReturnAffectedRows() throws Exception {
+        when(planetService.deleteAll(List.of(1L, 2L))).thenReturn(2);
+        mockMvc.perform(delete(URI + "?ids=1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2))
+                .andDo(print());
+        verify(planetService, times(1)).deleteAll(List.of(1L, 2L));
+        verifyNoMoreInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("DELETE /planets?climate= should delete by filter and return the affected rows")
+    void deletePlanets_WithFilter_ShouldReturnAffectedRows() throws Exception {
+        when(planetService.deleteAll("arid", null, MatchMode.EXACT)).thenReturn(3);
+        mockMvc.perform(delete(URI + "?climate=arid&match=EXACT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(3))
+                .andDo(print());
+        verify(planetService, times(1)).deleteAll("arid", null, MatchMode.EXACT);
+        verifyNoMoreInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("PATCH /planets should apply the changes to every id and return the affected rows")
+    void partialUpdatePlanets_ShouldReturnAffectedRows() throws Exception {
+        when(planetService.patchAll(eq(List.of(1L, 2L)), any(PlanetPatchRequest.class))).thenReturn(2);
+        mockMvc.perform(patch(URI)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,2],\"changes\":{\"climate\":\"temperate\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2))
+                .andDo(print());
+        verify(planetService, times(1)).patchAll(eq(List.of(1L, 2L)), any(PlanetPatchRequest.class));
+        verifyNoMoreInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("GET /planets/facets should return the token counts for the filters")
+    void findFacetCounts_ShouldReturnOk() throws Exception {
+        var counts = new FacetCountsResponse(Map.of("arid", 2L), Map.of("desert", 1L, "rocky", 1L));
+        when(planetService.facetCounts(isNull(), eq("desert"), eq(MatchMode.ANY_TOKEN))).thenReturn(counts);
+        mockMvc.perform(get(URI + "/facets?terrain=desert&match=ANY_TOKEN")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.climate.arid").value(2))
+                .andExpect(jsonPath("$.terrain.rocky").value(1))
+                .andDo(print());
+        verify(planetService, times(1)).facetCounts(isNull(), eq("desert"), eq(MatchMode.ANY_TOKEN));
+        verifyNoMoreInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("GET /planets/search with count=false should return a slice without totals")
+    void findPlanets_WithoutCount_ShouldReturnSlice() throws Exception {
+        SliceImpl<PlanetResponse> slice = new SliceImpl<>(List.of(response), Pageable.ofSize(15), false);
+        when(planetService.findSlice(eq("arid"), isNull(), eq(MatchMode.CONTAINS), any(Pageable.class))).thenReturn(slice);
+        when(planetService.approximateCount(eq("arid"), isNull(), eq(MatchMode.CONTAINS))).thenReturn(42L);
+        mockMvc.perform(get(URI + "/search?climate=arid&count=false&approximateTotal=true")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.last").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(header().string(PlanetController.APPROXIMATE_TOTAL_HEADER, "42"))
+                .andDo(print());
+        verify(planetService, times(1)).findSlice(eq("arid"), isNull(), eq(MatchMode.CONTAINS), any(Pageable.class));
+        verify(planetService, times(1)).approximateCount(eq("arid"), isNull(), eq(MatchMode.CONTAINS));
         verifyNoMoreInteractions(planetService);
     }
 
+    @Test
+    @DisplayName("GET /planets/search with cursor should return a slice and the next cursor")
+    void findPlanetsByCursor_ShouldReturnOk() throws Exception {
+        var cursor = new PlanetCursor("Hoth", 2L);
+        SliceImpl<PlanetResponse> slice = new SliceImpl<>(List.of(response), Pageable.ofSize(1), true);
+        when(planetService.find(eq("arid"), isNull(), eq(MatchMode.CONTAINS), eq(cursor), eq(1))).thenReturn(slice);
+        mockMvc.perform(get(URI + "/search?climate=arid&size=1&cursor=" + cursor.encode())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value(PlanetCursor.after(response).encode()))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andDo(print());
+        verify(planetService, times(1)).find(eq("arid"), isNull(), eq(MatchMode.CONTAINS), eq(cursor), eq(1));
+        verifyNoMoreInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("GET /planets/search with a malformed cursor should return 400")
+    void findPlanetsByCursor_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get(URI + "/search?cursor=not-a-cursor")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor not-a-cursor"))
+                .andDo(print());
+        verifyNoInteractions(planetService);
+    }
+
     @Test
     @DisplayName("DELETE planets/{id} should return 200")
     void deletePlanet_ShouldReturnOk() throws Exception {
@@ -236,7 +484,7 @@ public class PlanetControllerTest {
     @Test
     @DisplayName("PATCH planets/{id} should return 200")
     void partialUpdatePlanet_ShouldReturnOk() throws Exception {
-        when(planetService.patch(1L, patchRequest)).thenReturn(response);
+        when(planetService.patch(1L, patchRequest, null)).thenReturn(response);
         mockMvc.perform(patch(URI + "/1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(patchRequest)))
@@ -246,14 +494,14 @@ public class PlanetControllerTest {
                 .andExpect(jsonPath("$.climate").value("arid"))
                 .andExpect(jsonPath("$.terrain").value("desert"))
                 .andDo(print());
-        verify(planetService, times(1)).patch(1L, patchRequest);
+        verify(planetService, times(1)).patch(1L, patchRequest, null);
         verifyNoMoreInteractions(planetService);
     }
 
     @Test
     @DisplayName("PATCH planets/{id} should return 404")
     void partialUpdatePlanet_ShouldReturnNotFound() throws Exception {
-        when(planetService.patch(anyLong(), any(PlanetPatchRequest.class)))
+        when(planetService.patch(anyLong(), any(PlanetPatchRequest.class), isNull()))
                 .thenThrow(new PlanetNotFoundException(99L));
         mockMvc.perform(patch(URI + "/99")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -262,14 +510,14 @@ public class PlanetControllerTest {
                 .andExpect(jsonPath("$.message").value("Planet not found with id 99"))
                 .andExpect(jsonPath("$.error").value(HttpStatus.NOT_FOUND.getReasonPhrase()))
                 .andDo(print());
-        verify(planetService, times(1)).patch(anyLong(), any(PlanetPatchRequest.class));
+        verify(planetService, times(1)).patch(anyLong(), any(PlanetPatchRequest.class), isNull());
         verifyNoMoreInteractions(planetService);
     }
 
     @Test
     @DisplayName("UPDATE planets/{id} should return 200")
     void updatePlanet_ShouldReturnOk() throws Exception {
-        when(planetService.update(anyLong(), any(PlanetRequest.class))).thenReturn(response);
+        when(planetService.update(anyLong(), any(PlanetRequest.class), isNull())).thenReturn(response);
         mockMvc.perform(put(URI + "/1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -279,14 +527,14 @@ public class PlanetControllerTest {
                 .andExpect(jsonPath("$.climate").value("arid"))
                 .andExpect(jsonPath("$.terrain").value("desert"))
                 .andDo(print());
-        verify(planetService, times(1)).update(anyLong(), any(PlanetRequest.class));
+        verify(planetService, times(1)).update(anyLong(), any(PlanetRequest.class), isNull());
         verifyNoMoreInteractions(planetService);
     }
 
     @Test
     @DisplayName("UPDATE planets/{id} should return 400")
     void updatePlanet_ShouldReturnNotFound() throws Exception {
-        when(planetService.update(anyLong(), any(PlanetRequest.class)))
+        when(planetService.update(anyLong(), any(PlanetRequest.class), isNull()))
                 .thenThrow(new HttpMessageNotReadableException(""));
         mockMvc.perform(put(URI + "/99")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -294,4 +542,136 @@ public class PlanetControllerTest {
                 .andExpect(jsonPath("$.error").value(HttpStatus.BAD_REQUEST.getReasonPhrase()))
                 .andDo(print());
     }
+
+    @Test
+    @DisplayName("GET planets/{id} should return the version as a strong ETag")
+    void findPlanetById_ShouldReturnETag() throws Exception {
+        when(planetService.findById(anyLong())).thenReturn(new PlanetResponse(1L, "Tatooine", "arid", "desert", 4L));
+        mockMvc.perform(get(URI + "/1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andDo(print());
+        verify(planetService, times(1)).findById(1L);
+        verifyNoMoreInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("GET planets/{id} with a matching If-None-Match should return 304")
+    void findPlanetById_WithMatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+        when(planetService.findById(anyLong())).thenReturn(new PlanetResponse(1L, "Tatooine", "arid", "desert", 4L));
+        mockMvc.perform(get(URI + "/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(content().string(""))
+                .andDo(print());
+        verify(planetService, times(1)).findById(1L);
+        verifyNoMoreInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("PUT planets/{id} with If-Match should pass the version and return the next ETag")
+    void updatePlanet_WithIfMatch_ShouldReturnNextETag() throws Exception {
+        when(planetService.update(anyLong(), any(PlanetRequest.class), eq(4L)))
+                .thenReturn(new PlanetResponse(1L, "Tatooine", "arid", "desert", 5L));
+        mockMvc.perform(put(URI + "/1")
+                        .header(HttpHeaders.IF_MATCH, "\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""))
+                .andDo(print());
+        verify(planetService, times(1)).update(eq(1L), any(PlanetRequest.class), eq(4L));
+        verifyNoMoreInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("PATCH planets/{id} with a stale If-Match should return 412")
+    void partialUpdatePlanet_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        when(planetService.patch(anyLong(), any(PlanetPatchRequest.class), eq(3L)))
+                .thenThrow(new PlanetVersionMismatchException(1L));
+        mockMvc.perform(patch(URI + "/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(patchRequest)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").value(HttpStatus.PRECONDITION_FAILED.getReasonPhrase()))
+                .andDo(print());
+        verify(planetService, times(1)).patch(eq(1L), any(PlanetPatchRequest.class), eq(3L));
+        verifyNoMoreInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("PATCH planets/{id} without If-Match that loses a race should return 409")
+    void partialUpdatePlanet_WithConcurrentWrite_ShouldReturnConflict() throws Exception {
+        when(planetService.patch(anyLong(), any(PlanetPatchRequest.class), isNull()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Planet.class, 1L));
+        mockMvc.perform(patch(URI + "/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(patchRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value(HttpStatus.CONFLICT.getReasonPhrase()))
+                .andDo(print());
+        verify(planetService, times(1)).patch(eq(1L), any(PlanetPatchRequest.class), isNull());
+        verifyNoMoreInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("PUT planets/{id} with a weak If-Match should return 412 without writing")
+    void updatePlanet_WithWeakIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        mockMvc.perform(put(URI + "/1")
+                        .header(HttpHeaders.IF_MATCH, "W/\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed())
+                .andDo(print());
+        verifyNoInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("GET /planets/search should return a weak ETag from the modification counter and Cache-Control")
+    void findPlanets_ShouldReturnWeakETag() throws Exception {
+        when(planetModificationCounter.current()).thenReturn(42L);
+        when(planetService.find(anyString(), isNull(), any(MatchMode.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(response), Pageable.unpaged(), 1));
+        mockMvc.perform(get(URI + "/search?climate=arid"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"42\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andDo(print());
+        verify(planetService, times(1)).find(eq("arid"), isNull(), eq(MatchMode.CONTAINS), any(Pageable.class));
+        verifyNoMoreInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("GET /planets/search with a current If-None-Match should return 304 without querying")
+    void findPlanets_WithCurrentIfNoneMatch_ShouldReturnNotModified() throws Exception {
+        when(planetModificationCounter.current()).thenReturn(42L);
+        mockMvc.perform(get(URI + "/search?climate=arid")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"42\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(content().string(""))
+                .andDo(print());
+        verifyNoInteractions(planetService);
+    }
+
+    @Test
+    @DisplayName("GET /planets/search?cursor with a stale If-None-Match should run the query")
+    void findPlanetsByCursor_WithStaleIfNoneMatch_ShouldReturnOk() throws Exception {
+        when(planetModificationCounter.current()).thenReturn(43L);
+        when(planetService.find(isNull(), isNull(), any(MatchMode.class), isNull(), anyInt()))
+                .thenReturn(new SliceImpl<>(List.of(response), Pageable.ofSize(15), false));
+        mockMvc.perform(get(URI + "/search?cursor=")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"42\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"43\""))
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andDo(print());
+        verify(planetService, times(1)).find(isNull(), isNull(), eq(MatchMode.CONTAINS), isNull(), eq(15));
+        verifyNoMoreInteractions(planetService);
+    }
 }
@@ -0,0 +1,48 @@
+package com.mrb.sw_planet_api.controller;
+
+import com.mrb.sw_planet_api.service.exporter.ExportFormat;
+import com.mrb.sw_planet_api.service.exporter.PlanetExporter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = PlanetExportController.class)
+class PlanetExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PlanetExporter exporter;
+
+    @Test
+    @DisplayName("GET /planets/export?format=CSV should stream the exporter output as a CSV attachment")
+    void exportPlanets_AsCsv_ShouldStreamAttachment() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("id,name,climate,terrain\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exporter).export(eq(ExportFormat.CSV), any(OutputStream.class));
+
+        var result = mockMvc.perform(get("/planets/export?format=CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"planets.csv\""))
+                .andExpect(content().string("id,name,climate,terrain\n"))
+                .andDo(print());
+        verify(exporter, times(1)).export(eq(ExportFormat.CSV), any(OutputStream.class));
+        verifyNoMoreInteractions(exporter);
+    }
+}
@@ -0,0 +1,86 @@
+package com.mrb.sw_planet_api.controller;
+
+import com.mrb.sw_planet_api.exception.ImportJobNotFoundException;
+import com.mrb.sw_planet_api.service.importer.ImportJob;
+import com.mrb.sw_planet_api.service.importer.PlanetImporter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import java.io.InputStream;
+import java.util.List;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = PlanetImportController.class)
+class PlanetImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PlanetImporter importer;
+
+    private final String URI = "/planets/import";
+
+    @Test
+    @DisplayName("POST /planets/import should stream the NDJSON body to the importer and return the job")
+    void importPlanets_ShouldReturnOk() throws Exception {
+        var job = new ImportJob(10);
+        job.read();
+        job.imported(1);
+        job.complete();
+        when(importer.importPlanets(any(InputStream.class))).thenReturn(job);
+        mockMvc.perform(post(URI)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"Tatooine\",\"climate\":\"arid\",\"terrain\":\"desert\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Location", URI + "/" + job.getId()))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andDo(print());
+        verify(importer, times(1)).importPlanets(any(InputStream.class));
+        verifyNoMoreInteractions(importer);
+    }
+
+    @Test
+    @DisplayName("POST /planets/import should return 400 when the import failed")
+    void importPlanets_Failed_ShouldReturnBadRequest() throws Exception {
+        var job = new ImportJob(10);
+        job.fail("Unexpected end-of-input");
+        when(importer.importPlanets(any(InputStream.class))).thenReturn(job);
+        mockMvc.perform(post(URI)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("GET /planets/import should list the known jobs")
+    void findImportJobs_ShouldReturnOk() throws Exception {
+        when(importer.findAll()).thenReturn(List.of(new ImportJob(10)));
+        mockMvc.perform(get(URI))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].status").value("RUNNING"))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("GET /planets/import/{id} with an unknown id should return 404")
+    void findImportJob_Unknown_ShouldReturnNotFound() throws Exception {
+        when(importer.find("missing")).thenThrow(new ImportJobNotFoundException("missing"));
+        mockMvc.perform(get(URI + "/missing"))
+                .andExpect(status().isNotFound())
+                .andDo(print());
+    }
+}
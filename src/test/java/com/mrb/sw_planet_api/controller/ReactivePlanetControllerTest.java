@@ -0,0 +1,129 @@
+package com.mrb.sw_planet_api.controller;
+
+import com.mrb.sw_planet_api.dto.PlanetResponse;
+import com.mrb.sw_planet_api.exception.PlanetNotFoundException;
+import com.mrb.sw_planet_api.repository.specification.MatchMode;
+import com.mrb.sw_planet_api.service.reactive.ReactivePlanetService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.List;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ReactivePlanetController.class)
+class ReactivePlanetControllerTest {
+
+    private static final String URI = "/reactive/planets";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ReactivePlanetService service;
+
+    private final PlanetResponse tatooine = new PlanetResponse(1L, "Tatooine", "arid", "desert");
+    private final PlanetResponse hoth = new PlanetResponse(2L, "Hoth", "frozen", "tundra");
+
+    @Test
+    @DisplayName("GET /reactive/planets/{id} should return 200")
+    void findPlanetById_ShouldReturnOk() throws Exception {
+        when(service.findById(1L)).thenReturn(Mono.just(tatooine));
+        var result = mockMvc.perform(get(URI + "/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Tatooine"))
+                .andDo(print());
+        verify(service, times(1)).findById(1L);
+        verifyNoMoreInteractions(service);
+    }
+
+    @Test
+    @DisplayName("GET /reactive/planets/{id} should return 404")
+    void findPlanetById_ShouldReturnNotFound() throws Exception {
+        when(service.findById(99L)).thenReturn(Mono.error(new PlanetNotFoundException(99L)));
+        var result = mockMvc.perform(get(URI + "/99"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Planet not found with id 99"))
+                .andExpect(jsonPath("$.error").value(HttpStatus.NOT_FOUND.getReasonPhrase()))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("GET /reactive/planets/search should return a slice")
+    void findPlanets_ShouldReturnSlice() throws Exception {
+        when(service.findSlice(eq("arid"), isNull(), eq(MatchMode.CONTAINS), any(Pageable.class)))
+                .thenReturn(Mono.just(new SliceImpl<>(List.of(tatooine), Pageable.ofSize(1), true)));
+        var result = mockMvc.perform(get(URI + "/search?climate=arid&size=1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.last").value(false))
+                .andDo(print());
+        verify(service, times(1)).findSlice(eq("arid"), isNull(), eq(MatchMode.CONTAINS), any(Pageable.class));
+        verifyNoMoreInteractions(service);
+    }
+
+    @Test
+    @DisplayName("GET /reactive/planets/search/stream should default to one NDJSON line per planet")
+    void streamPlanets_AsNdjson_ShouldWriteOneLinePerPlanet() throws Exception {
+        when(service.stream(isNull(), isNull(), eq(MatchMode.CONTAINS))).thenReturn(Flux.just(tatooine, hoth));
+        var result = mockMvc.perform(get(URI + "/search/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("""
+                        {"id":1,"name":"Tatooine","climate":"arid","terrain":"desert"}
+                        {"id":2,"name":"Hoth","climate":"frozen","terrain":"tundra"}
+                        """))
+                .andDo(print());
+        verify(service, times(1)).stream(isNull(), isNull(), eq(MatchMode.CONTAINS));
+        verifyNoMoreInteractions(service);
+    }
+
+    @Test
+    @DisplayName("GET /reactive/planets/search/stream should send server-sent events when asked for them")
+    void streamPlanets_AsServerSentEvents_ShouldWriteOneEventPerPlanet() throws Exception {
+        when(service.stream(eq("frozen"), isNull(), eq(MatchMode.EXACT))).thenReturn(Flux.just(hoth));
+        var result = mockMvc.perform(get(URI + "/search/stream?climate=frozen&match=EXACT").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string("data:{\"id\":2,\"name\":\"Hoth\",\"climate\":\"frozen\",\"terrain\":\"tundra\"}\n\n"))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("GET /reactive/planets/search with an unknown match mode should return 400")
+    void findPlanets_WithUnknownMatch_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get(URI + "/search?climate=arid&match=foo"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value 'foo' for parameter 'match'"))
+                .andDo(print());
+        verifyNoInteractions(service);
+    }
+}
@@ -0,0 +1,137 @@
+package com.mrb.sw_planet_api.loadtest;
+
+import com.mrb.sw_planet_api.dto.PlanetRequest;
+import com.mrb.sw_planet_api.dto.PlanetResponse;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Shared driver for the load ITs that compare one endpoint across application configurations:
+ * seeds planets over HTTP, spreads a fixed number of requests over concurrent clients and records
+ * their latencies in an HdrHistogram.
+ * <p>
+ * The bulk seed data is public because the JMH benchmarks, compiled with the tests under the
+ * {@code benchmark} profile, seed the same table.
+ */
+public final class LoadHarness {
+
+    public static final String[] CLIMATES = {"arid", "temperate", "frozen", "murky", "tropical", "arid, temperate", "windy", "polluted"};
+    public static final String[] TERRAINS = {"desert", "grasslands, mountains", "tundra", "swamp", "jungle", "ocean", "cityscape", "rocky"};
+
+    private static final int SEED_BATCH = 10_000;
+
+    private LoadHarness() {}
+
+    /**
+     * Base of the nested {@code @SpringBootTest} classes, one per configuration under comparison.
+     */
+    abstract static class Server {
+        @LocalServerPort
+        protected int port;
+        @Autowired
+        protected TestRestTemplate testRestTemplate;
+
+        protected URI uri(String path) {
+            return URI.create("http://localhost:" + port + path);
+        }
+    }
+
+    @FunctionalInterface
+    interface Request {
+        void send(int index) throws Exception;
+    }
+
+    /**
+     * Creates {@code planets} planets through the API and returns their ids in creation order.
+     */
+    static List<Long> seed(TestRestTemplate rest, int planets, IntFunction<PlanetRequest> planet) {
+        List<Long> ids = new ArrayList<>(planets);
+        for (int i = 0; i < planets; i++) {
+            ids.add(rest.postForEntity("/planets", planet.apply(i), PlanetResponse.class).getBody().getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Inserts {@code planets} rows straight into the table, named {@code Planet 0} onwards, so on an
+     * empty table ids run from 1 to {@code planets}. Climates and terrains cycle, so every filter
+     * hits a fixed share of the table.
+     */
+    public static void seed(JdbcTemplate jdbcTemplate, int planets) {
+        List<Object[]> batch = new ArrayList<>(Math.min(planets, SEED_BATCH));
+        for (int i = 0; i < planets; i++) {
+            batch.add(new Object[]{"Planet " + i, CLIMATES[i % CLIMATES.length], TERRAINS[i / CLIMATES.length % TERRAINS.length]});
+            if (batch.size() == SEED_BATCH || i == planets - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO planets (name, climate, terrain) VALUES (?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    static PlanetRequest planet(ThreadLocalRandom random) {
+        return new PlanetRequest("Load " + random.nextLong(Long.MAX_VALUE), climate(random), terrain(random));
+    }
+
+    static String climate(ThreadLocalRandom random) {
+        return CLIMATES[random.nextInt(CLIMATES.length)];
+    }
+
+    static String terrain(ThreadLocalRandom random) {
+        return TERRAINS[random.nextInt(TERRAINS.length)];
+    }
+
+    /**
+     * Sends {@code requests} requests from {@code clients} concurrent clients, asserting each is a
+     * 200, and returns their latencies in nanoseconds.
+     */
+    static Histogram timed(HttpClient client, int clients, int requests, IntFunction<HttpRequest> request) throws Exception {
+        Histogram latencies = new ConcurrentHistogram(3);
+        run(clients, requests, i -> {
+            var sent = request.apply(i);
+            long start = System.nanoTime();
+            var response = client.send(sent, HttpResponse.BodyHandlers.discarding());
+            latencies.recordValue(System.nanoTime() - start);
+            assertThat(response.statusCode()).isEqualTo(200);
+        });
+        return latencies;
+    }
+
+    // One virtual thread per client, so the load generator is never the one running out of threads
+    static void run(int clients, int requests, Request request) throws Exception {
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                int offset = c;
+                workers.add(pool.submit(() -> {
+                    for (int i = offset; i < requests; i += clients) request.send(i);
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) worker.get();
+        }
+    }
+
+    static String percentiles(Histogram latencies) {
+        return String.format("p50=%6dus p99=%6dus p999=%6dus", micros(latencies, 50), micros(latencies, 99), micros(latencies, 99.9));
+    }
+
+    private static long micros(Histogram latencies, double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1_000;
+    }
+}
@@ -0,0 +1,224 @@
+package com.mrb.sw_planet_api.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mrb.sw_planet_api.dto.BatchGetRequest;
+import com.mrb.sw_planet_api.dto.BulkPatchRequest;
+import com.mrb.sw_planet_api.dto.PlanetPatchRequest;
+import com.mrb.sw_planet_api.dto.PlanetRequest;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import static com.mrb.sw_planet_api.loadtest.LoadHarness.climate;
+import static com.mrb.sw_planet_api.loadtest.LoadHarness.planet;
+import static com.mrb.sw_planet_api.loadtest.LoadHarness.terrain;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.web.util.UriUtils.encodePathSegment;
+import static org.springframework.web.util.UriUtils.encodeQueryParam;
+
+/**
+ * Open-model load against every {@code PlanetController} endpoint: requests leave at a fixed
+ * target rate whatever the server's speed, mixed by weight across reads, searches and writes, on
+ * a table seeded with {@code loadtest.planets} rows instead of {@code data-test.sql}.
+ * <p>
+ * Latency is measured from when a request was due to be sent, not when it was sent, so a stalled
+ * server shows up in the percentiles instead of silently lowering the rate. For each endpoint it
+ * prints throughput, p50/p99/p999/max and non-2xx responses, and writes the full percentile
+ * distribution to {@code target/loadtest/<endpoint>.hgrm} for comparing runs.
+ * Run with: ./mvnw -Ploadtest test -Dtest=MixedWorkloadLoadIT [-Dloadtest.rate=200 -Dloadtest.duration=30s -Dloadtest.planets=10000]
+ */
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false", "spring.jackson.serialization.indent_output=false",
+        "spring.datasource.url=jdbc:h2:mem:mixedload;DB_CLOSE_DELAY=-1",
+        "planets.reactive.r2dbc.url=r2dbc:h2:mem:///mixedload?options=DB_CLOSE_DELAY=-1"})
+public class MixedWorkloadLoadIT {
+
+    private static final Path RESULTS = Path.of("target", "loadtest");
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${loadtest.planets:10000}")
+    private int planets;
+    @Value("${loadtest.rate:200}")
+    private int rate;
+    @Value("${loadtest.duration:30s}")
+    private Duration duration;
+    @Value("${loadtest.warmup:5s}")
+    private Duration warmup;
+
+    // Ids the workload created itself, so deletes never remove the seeded planets that reads rely on
+    private final Queue<Long> created = new ConcurrentLinkedQueue<>();
+
+    private record Endpoint(String name, int weight, Function<ThreadLocalRandom, HttpRequest> request,
+                            Histogram latencies, AtomicLong errors) {
+        Endpoint(String name, int weight, Function<ThreadLocalRandom, HttpRequest> request) {
+            this(name, weight, request, new ConcurrentHistogram(3), new AtomicLong());
+        }
+    }
+
+    @Test
+    void planetEndpoints_MixedWorkloadAtTargetRate() throws Exception {
+        LoadHarness.seed(jdbcTemplate, planets);
+        List<Endpoint> endpoints = endpoints();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            drive(client, endpoints, warmup);
+            endpoints.forEach(endpoint -> {
+                endpoint.latencies().reset();
+                endpoint.errors().set(0);
+            });
+            drive(client, endpoints, duration);
+        }
+        report(endpoints);
+    }
+
+    // Weights roughly follow a read-heavy API: point reads first, then searches, then writes
+    private List<Endpoint> endpoints() {
+        return List.of(
+                new Endpoint("GET /{id}", 25, random -> get("/" + seededId(random))),
+                new Endpoint("GET /name/{name}", 8, random -> get("/name/" + encodePathSegment("Planet " + (seededId(random) - 1), UTF_8))),
+                new Endpoint("GET /name/{name}/matches", 4, random -> get("/name/" + encodePathSegment("Planet " + random.nextInt(100), UTF_8) + "/matches")),
+                new Endpoint("GET /search", 10, random -> get("/search?climate=" + encodeQueryParam(climate(random), UTF_8) + "&page=" + random.nextInt(5))),
+                new Endpoint("GET /search?count=false", 10, random -> get("/search?count=false&terrain=" + encodeQueryParam(terrain(random), UTF_8) + "&page=" + random.nextInt(5))),
+                new Endpoint("GET /search?cursor", 5, random -> get("/search?cursor=&size=20&climate=" + encodeQueryParam(climate(random), UTF_8))),
+                new Endpoint("GET /facets", 3, random -> get("/facets?climate=" + encodeQueryParam(climate(random), UTF_8))),
+                new Endpoint("POST /batch-get", 5, random -> post("/batch-get", new BatchGetRequest(seededIds(random, 20)))),
+                new Endpoint("POST /", 8, random -> post("/", planet(random))),
+                new Endpoint("POST /bulk", 1, random -> post("/bulk", LongStream.range(0, 20).mapToObj(i -> planet(random)).toList())),
+                new Endpoint("PUT /{id}", 4, random -> {
+                    long id = seededId(random);
+                    // keeps the seeded name so lookups by name still find it
+                    return send("PUT", "/" + id, new PlanetRequest("Planet " + (id - 1), climate(random), terrain(random)));
+                }),
+                new Endpoint("PATCH /{id}", 4, random -> send("PATCH", "/" + seededId(random), new PlanetPatchRequest(null, climate(random), null))),
+                new Endpoint("PATCH /", 2, random -> send("PATCH", "", new BulkPatchRequest(seededIds(random, 10), new PlanetPatchRequest(null, null, terrain(random))))),
+                new Endpoint("DELETE /{id}", 3, random -> delete(created.poll(), id -> "/" + id)),
+                new Endpoint("DELETE /?ids", 1, random -> delete(created.poll(), id -> "?ids=" + id)));
+    }
+
+    // One request leaves every 1/rate seconds; each runs on its own virtual thread so none waits for another
+    private void drive(HttpClient client, List<Endpoint> endpoints, Duration length) throws InterruptedException {
+        int totalWeight = endpoints.stream().mapToInt(Endpoint::weight).sum();
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long due = start; due < end; due += interval) {
+                LockSupport.parkNanos(due - System.nanoTime());
+                var endpoint = pick(endpoints, ThreadLocalRandom.current().nextInt(totalWeight));
+                long intended = due;
+                senders.submit(() -> call(client, endpoint, intended));
+            }
+        }
+    }
+
+    private void call(HttpClient client, Endpoint endpoint, long intended) {
+        var request = endpoint.request().apply(ThreadLocalRandom.current());
+        // no planet left to delete yet; skip rather than record a request that was never sent
+        if (request == null) return;
+        try {
+            var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 300 && response.statusCode() != 304) endpoint.errors().incrementAndGet();
+            if (request.method().equals("POST") && response.statusCode() == 201) {
+                response.headers().firstValue("Location").ifPresent(location ->
+                        created.add(Long.valueOf(location.substring(location.lastIndexOf('/') + 1))));
+            }
+        } catch (Exception exception) {
+            endpoint.errors().incrementAndGet();
+        }
+        endpoint.latencies().recordValue(System.nanoTime() - intended);
+    }
+
+    private void report(List<Endpoint> endpoints) throws Exception {
+        Files.createDirectories(RESULTS);
+        double seconds = duration.toNanos() / 1e9;
+        System.out.printf("Mixed workload: %d planets, target %d req/s for %ss%n", planets, rate, duration.toSeconds());
+        for (var endpoint : endpoints) {
+            var latencies = endpoint.latencies();
+            System.out.printf("%-26s %7d req %8.1f req/s p50=%7dus p99=%7dus p999=%7dus max=%7dus errors=%d%n",
+                    endpoint.name(), latencies.getTotalCount(), latencies.getTotalCount() / seconds,
+                    micros(latencies.getValueAtPercentile(50)), micros(latencies.getValueAtPercentile(99)),
+                    micros(latencies.getValueAtPercentile(99.9)), micros(latencies.getMaxValue()), endpoint.errors().get());
+            var file = RESULTS.resolve(endpoint.name().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm");
+            try (var out = new PrintStream(Files.newOutputStream(file))) {
+                latencies.outputPercentileDistribution(out, 1_000.0);
+            }
+        }
+    }
+
+    private static Endpoint pick(List<Endpoint> endpoints, int ticket) {
+        for (var endpoint : endpoints) {
+            ticket -= endpoint.weight();
+            if (ticket < 0) return endpoint;
+        }
+        throw new IllegalStateException("ticket beyond total weight");
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        return send("POST", path, body);
+    }
+
+    private HttpRequest send(String method, String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(uri(path))
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (Exception exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private HttpRequest delete(Long id, Function<Long, String> path) {
+        return id == null ? null : HttpRequest.newBuilder(uri(path.apply(id))).DELETE().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + "/planets" + (path.equals("/") ? "" : path));
+    }
+
+    private long seededId(ThreadLocalRandom random) {
+        return random.nextLong(1, planets + 1);
+    }
+
+    private List<Long> seededIds(ThreadLocalRandom random, int count) {
+        return LongStream.range(0, count).map(i -> seededId(random)).boxed().toList();
+    }
+
+    private static long micros(long nanos) {
+        return nanos / 1_000;
+    }
+}
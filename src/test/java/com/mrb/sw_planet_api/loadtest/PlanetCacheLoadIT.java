@@ -0,0 +1,67 @@
+package com.mrb.sw_planet_api.loadtest;
+
+import com.mrb.sw_planet_api.dto.PlanetRequest;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives GET /planets/{id} over a small hot set with the by-id cache on and off and prints
+ * p50/p99 for each. Run explicitly: ./mvnw test -Dtest=PlanetCacheLoadIT
+ */
+@ActiveProfiles("test")
+public class PlanetCacheLoadIT {
+
+    private static final int HOT_SET = 20;
+    private static final int CLIENTS = 8;
+    private static final int WARMUP_REQUESTS = 1_000;
+    private static final int REQUESTS = 10_000;
+    private static final Map<String, Histogram> RESULTS = new ConcurrentHashMap<>();
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {"planets.cache.by-id.enabled=true", "spring.datasource.url=jdbc:h2:mem:cached"})
+    class Cached extends LoadHarness.Server {
+        @Test
+        void findPlanetById_UnderLoad() throws Exception {
+            RESULTS.put("cached", drive(this));
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {"planets.cache.by-id.enabled=false", "spring.datasource.url=jdbc:h2:mem:uncached"})
+    class Uncached extends LoadHarness.Server {
+        @Test
+        void findPlanetById_UnderLoad() throws Exception {
+            RESULTS.put("uncached", drive(this));
+        }
+    }
+
+    @AfterAll
+    static void report() {
+        RESULTS.forEach((mode, latencies) -> System.out.printf("GET /planets/{id} %-8s %s%n", mode, LoadHarness.percentiles(latencies)));
+    }
+
+    private static Histogram drive(LoadHarness.Server server) throws Exception {
+        var ids = LoadHarness.seed(server.testRestTemplate, HOT_SET, i -> new PlanetRequest("Planet " + i, "arid", "desert"));
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            LoadHarness.timed(client, CLIENTS, WARMUP_REQUESTS, i -> byId(server, ids));
+            return LoadHarness.timed(client, CLIENTS, REQUESTS, i -> byId(server, ids));
+        }
+    }
+
+    private static HttpRequest byId(LoadHarness.Server server, List<Long> ids) {
+        var id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        return HttpRequest.newBuilder(server.uri("/planets/" + id)).build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.mrb.sw_planet_api.loadtest;
+
+import com.mrb.sw_planet_api.dto.PlanetRequest;
+import com.mrb.sw_planet_api.repository.reactive.ReactivePlanetRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Sends the same uncached search page through the blocking and the reactive API with many
+ * concurrent clients, and prints for each the peak requests in flight, the peak database
+ * connections and platform threads held, the bytes allocated per request and the failed requests
+ * (a blocking request fails once it waits longer than the pool's connection timeout). Client and
+ * server share the JVM, so allocations include the client's; they are identical on both sides.
+ * Run with: ./mvnw -Ploadtest test -Dtest=ReactiveReadLoadIT
+ */
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "planets.cache.search.enabled=false", "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:reactiveload;DB_CLOSE_DELAY=-1",
+        "planets.reactive.r2dbc.url=r2dbc:h2:mem:///reactiveload?options=DB_CLOSE_DELAY=-1"})
+public class ReactiveReadLoadIT {
+
+    private static final int PLANETS = 200;
+    private static final int CLIENTS = 400;
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int REQUESTS = 10_000;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private ReactivePlanetRepository reactiveRepository;
+
+    private record Peaks(int inFlight, int connections, int threads, long bytesPerRequest, int failed) {}
+
+    @Test
+    void searchPlanets_BlockingVersusReactive() throws Exception {
+        LoadHarness.seed(testRestTemplate, PLANETS, i -> new PlanetRequest("Planet " + i, i % 2 == 0 ? "arid" : "frozen", "desert"));
+        String query = "/search?climate=arid&count=false&size=20";
+        var blocking = URI.create("http://localhost:" + port + "/planets" + query);
+        var reactive = URI.create("http://localhost:" + port + "/reactive/planets" + query);
+        // The pool sits behind the query-counting proxy
+        var jdbcPool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        IntSupplier jdbcConnections = jdbcPool::getActiveConnections;
+        IntSupplier r2dbcConnections = () -> reactiveRepository.pool().getMetrics().orElseThrow().acquiredSize();
+
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            run(client, blocking, WARMUP_REQUESTS, jdbcConnections);
+            run(client, reactive, WARMUP_REQUESTS, r2dbcConnections);
+            report("blocking", run(client, blocking, REQUESTS, jdbcConnections));
+            report("reactive", run(client, reactive, REQUESTS, r2dbcConnections));
+        }
+    }
+
+    private static void report(String api, Peaks peaks) {
+        System.out.printf("GET search %-8s in-flight=%4d connections=%3d threads=%4d allocated=%7d B/request failed=%d%n",
+                api, peaks.inFlight(), peaks.connections(), peaks.threads(), peaks.bytesPerRequest(), peaks.failed());
+    }
+
+    // Samples the server while the clients run; threads are counted above the idle baseline
+    private static Peaks run(HttpClient client, URI uri, int requests, IntSupplier connections) throws Exception {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int baselineThreads = threads.getThreadCount();
+        var inFlight = new AtomicInteger();
+        var failed = new AtomicInteger();
+        int[] peaks = new int[3];
+        var sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peaks[0] = Math.max(peaks[0], inFlight.get());
+                peaks[1] = Math.max(peaks[1], connections.getAsInt());
+                peaks[2] = Math.max(peaks[2], threads.getThreadCount() - baselineThreads);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException exception) {
+                    return;
+                }
+            }
+        });
+        long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+        try {
+            LoadHarness.run(CLIENTS, requests, i -> {
+                inFlight.incrementAndGet();
+                var response = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding());
+                inFlight.decrementAndGet();
+                if (response.statusCode() != 200) failed.incrementAndGet();
+            });
+        } finally {
+            sampler.interrupt();
+            sampler.join();
+        }
+        long allocated = threads.getTotalThreadAllocatedBytes() - allocatedBefore;
+        return new Peaks(peaks[0], peaks[1], peaks[2], allocated / requests, failed.get());
+    }
+}
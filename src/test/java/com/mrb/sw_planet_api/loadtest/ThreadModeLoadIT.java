@@ -0,0 +1,73 @@
+package com.mrb.sw_planet_api.loadtest;
+
+import com.mrb.sw_planet_api.dto.PlanetRequest;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drives uncached /planets/search pages with more concurrent clients than Tomcat has platform
+ * worker threads, once per request execution mode, and prints throughput and p50/p99/p999 for
+ * each. Both modes share the same connection pool size. In-memory H2 barely blocks, so compare the
+ * modes on the same hardware and, for the thread ceiling to show, against a networked database.
+ * Run with: ./mvnw -Ploadtest test -Dtest=ThreadModeLoadIT
+ */
+@ActiveProfiles("test")
+public class ThreadModeLoadIT {
+
+    private static final int PLANETS = 200;
+    private static final int CLIENTS = 400;
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int REQUESTS = 20_000;
+    private static final Map<String, Result> RESULTS = new ConcurrentHashMap<>();
+
+    private record Result(Histogram latencies, double requestsPerSecond) {}
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+            "spring.threads.virtual.enabled=false", "planets.cache.search.enabled=false",
+            "spring.jpa.show-sql=false", "spring.datasource.url=jdbc:h2:mem:platform"})
+    class PlatformThreads extends LoadHarness.Server {
+        @Test
+        void searchPlanets_UnderLoad() throws Exception {
+            RESULTS.put("platform", drive(this));
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+            "spring.threads.virtual.enabled=true", "planets.cache.search.enabled=false",
+            "spring.jpa.show-sql=false", "spring.datasource.url=jdbc:h2:mem:virtual"})
+    class VirtualThreads extends LoadHarness.Server {
+        @Test
+        void searchPlanets_UnderLoad() throws Exception {
+            RESULTS.put("virtual", drive(this));
+        }
+    }
+
+    @AfterAll
+    static void report() {
+        RESULTS.forEach((mode, result) -> System.out.printf("GET /planets/search %-8s %8.0f req/s %s%n",
+                mode, result.requestsPerSecond(), LoadHarness.percentiles(result.latencies())));
+    }
+
+    private static Result drive(LoadHarness.Server server) throws Exception {
+        LoadHarness.seed(server.testRestTemplate, PLANETS,
+                i -> new PlanetRequest("Planet " + i, i % 2 == 0 ? "arid" : "frozen", "desert"));
+        var search = HttpRequest.newBuilder(server.uri("/planets/search?climate=arid&count=false&size=20")).build();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            LoadHarness.timed(client, CLIENTS, WARMUP_REQUESTS, i -> search);
+            long start = System.nanoTime();
+            var latencies = LoadHarness.timed(client, CLIENTS, REQUESTS, i -> search);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            return new Result(latencies, REQUESTS / seconds);
+        }
+    }
+}
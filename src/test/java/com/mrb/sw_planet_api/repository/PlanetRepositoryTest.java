@@ -3,6 +3,8 @@ package com.mrb.sw_planet_api.repository;
 import com.mrb.sw_planet_api.dto.PlanetRequest;
 import com.mrb.sw_planet_api.mapper.PlanetMapper;
 import com.mrb.sw_planet_api.model.Planet;
+import com.mrb.sw_planet_api.repository.projection.PlanetFacetCount;
+import com.mrb.sw_planet_api.repository.specification.MatchMode;
 import com.mrb.sw_planet_api.repository.specification.PlanetSpecifications;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,7 +14,10 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
 import java.util.List;
 import java.util.Optional;
 import static org.assertj.core.api.Assertions.*;
@@ -20,6 +25,7 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
 public class PlanetRepositoryTest {
 
     @Autowired
@@ -56,6 +62,29 @@ public class PlanetRepositoryTest {
         assertThat(persisted.getTerrain()).isEqualTo("swamp");
     }
 
+    @Test
+    @DisplayName("insertAll() should batch insert the planets and assign their generated IDs")
+    void insertAll_ShouldPersistAndAssignIds() {
+        List<Planet> planets = List.of(
+                PlanetMapper.toEntity(new PlanetRequest("Dagobah", "murky", "swamp")),
+                PlanetMapper.toEntity(new PlanetRequest("Endor", "temperate", "forest")));
+
+        planetRepository.insertAll(planets);
+
+        assertThat(planets).extracting(Planet::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(planetRepository.findAllById(planets.stream().map(Planet::getId).toList()))
+                .extracting(Planet::getName)
+                .containsExactlyInAnyOrder("Dagobah", "Endor");
+    }
+
+    @Test
+    @DisplayName("streamAllByOrderByIdAsc() should stream every planet in id order")
+    void streamAllByOrderByIdAsc_ShouldStreamPlanetsInIdOrder() {
+        try (var planets = planetRepository.streamAllByOrderByIdAsc()) {
+            assertThat(planets.map(Planet::getName).toList()).containsExactly("Tatooine", "Hoth");
+        }
+    }
+
     @Test
     @DisplayName("save() with null name should throw exception")
     void savePlanet_WithNullName_ShouldThrowException() {
@@ -65,22 +94,27 @@ public class PlanetRepositoryTest {
     }
 
     @Test
-    @DisplayName("findByNameContainingIgnoreCase() should return planet when name matches")
-    void findByNameContainingIgnoreCase_ShouldReturnPlanet() {
-        Optional<Planet> found = planetRepository.findByNameContainingIgnoreCase("tatoo");
+    @DisplayName("findRankedByName() should order exact, then prefix, then substring matches, and countByNameLike() count them")
+    void findRankedByName_ShouldRankMatches() {
+        testEntityManager.persist(PlanetMapper.toEntity(new PlanetRequest("Hoth Prime", "frozen", "ice")));
+        testEntityManager.persist(PlanetMapper.toEntity(new PlanetRequest("Mahoth", "frozen", "ice")));
+        testEntityManager.flush();
+
+        List<Planet> ranked = planetRepository.findRankedByName("hoth", "hoth%", "%hoth%", PageRequest.of(0, 10));
 
-        assertThat(found).isPresent();
-        assertThat(found.get().getName()).isEqualTo("Tatooine");
+        assertThat(planetRepository.countByNameLike("%hoth%")).isEqualTo(3);
+        assertThat(ranked)
+                .extracting(Planet::getName)
+                .containsExactly("Hoth", "Hoth Prime", "Mahoth");
     }
 
     @Test
-    @DisplayName("findByNameContainingIgnoreCase() should return empty when name does not match")
-    void findByNameContainingIgnoreCase_ShouldReturnEmpty() {
-        Optional<Planet> found = planetRepository.findByNameContainingIgnoreCase("nonexistent");
-        assertThat(found).isEmpty();
+    @DisplayName("findFirstByNameNormalizedOrderByIdAsc() should return only a case-insensitive exact name match")
+    void findFirstByNameNormalized_ShouldReturnExactMatchOnly() {
+        assertThat(planetRepository.findFirstByNameNormalizedOrderByIdAsc("hoth")).map(Planet::getName).contains("Hoth");
+        assertThat(planetRepository.findFirstByNameNormalizedOrderByIdAsc("hot")).isEmpty();
     }
 
-
     @Test
     @DisplayName("findAll() should return all persisted planets")
     void findAll_ShouldReturnAllPlanets() {
@@ -125,6 +159,85 @@ public class PlanetRepositoryTest {
         assertThat(planetsFiltered).isEmpty();
     }
 
+    @Test
+    @DisplayName("findAll() with specification climateMatches() should match the normalized column exactly or by prefix")
+    void findAll_WithSpecificationClimateMatchModes_ShouldReturnPlanets() {
+        testEntityManager.persistAndFlush(PlanetMapper.toEntity(new PlanetRequest("Geonosis", " Arid ", "rocky")));
+        testEntityManager.persistAndFlush(PlanetMapper.toEntity(new PlanetRequest("Jakku", "arid, windy", "desert")));
+
+        assertThat(planetRepository.findAll(PlanetSpecifications.climateMatches("ARID", MatchMode.EXACT)))
+                .extracting(Planet::getName)
+                .containsExactlyInAnyOrder("Tatooine", "Geonosis");
+        assertThat(planetRepository.findAll(PlanetSpecifications.climateMatches("ari", MatchMode.PREFIX)))
+                .extracting(Planet::getName)
+                .containsExactlyInAnyOrder("Tatooine", "Geonosis", "Jakku");
+        assertThat(planetRepository.findAll(PlanetSpecifications.climateMatches("ri", MatchMode.PREFIX))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("findAll() with token match modes should compare whole comma separated tokens")
+    void findAll_WithSpecificationTokenMatchModes_ShouldReturnPlanets() {
+        testEntityManager.persistAndFlush(PlanetMapper.toEntity(new PlanetRequest("Jakku", "Arid, windy", "desert")));
+        testEntityManager.persistAndFlush(PlanetMapper.toEntity(new PlanetRequest("Kamino", "temperate", "ocean")));
+
+        assertThat(planetRepository.findAll(PlanetSpecifications.climateMatches("windy, ARID", MatchMode.ALL_TOKENS)))
+                .extracting(Planet::getName)
+                .containsExactly("Jakku");
+        assertThat(planetRepository.findAll(PlanetSpecifications.climateMatches("windy,temperate", MatchMode.ANY_TOKEN)))
+                .extracting(Planet::getName)
+                .containsExactlyInAnyOrder("Jakku", "Kamino");
+        assertThat(planetRepository.findAll(PlanetSpecifications.climateMatches("rid", MatchMode.ANY_TOKEN))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("findAll() with specification idIn() should return the listed planets in the requested order")
+    void findAll_WithSpecificationIdIn_ShouldReturnPlanetsSorted() {
+        List<Long> ids = planetRepository.findAll().stream().map(Planet::getId).toList();
+
+        assertThat(planetRepository.findAll(PlanetSpecifications.idIn(ids), Sort.by("name")))
+                .extracting(Planet::getName)
+                .containsExactly("Hoth", "Tatooine");
+    }
+
+    @Test
+    @DisplayName("countFacets() should count planets per normalized climate and terrain pair, optionally filtered")
+    void countFacets_ShouldGroupNormalizedPairs() {
+        testEntityManager.persistAndFlush(PlanetMapper.toEntity(new PlanetRequest("Geonosis", " Arid ", "DESERT")));
+
+        assertThat(planetRepository.countFacets(null))
+                .extracting(PlanetFacetCount::climate, PlanetFacetCount::terrain, PlanetFacetCount::planets)
+                .containsExactlyInAnyOrder(tuple("arid", "desert", 2L), tuple("frozen", "tundra", 1L));
+        assertThat(planetRepository.countFacets(PlanetSpecifications.climateMatches("frozen", MatchMode.EXACT)))
+                .extracting(PlanetFacetCount::climate, PlanetFacetCount::planets)
+                .containsExactly(tuple("frozen", 1L));
+    }
+
+    @Test
+    @DisplayName("deleteAllByIds() should delete the listed planets in one statement and return the count")
+    void deleteAllByIds_ShouldReturnAffectedRows() {
+        Long tatooineId = planetRepository.findFirstByNameNormalizedOrderByIdAsc("tatooine").orElseThrow().getId();
+
+        int affected = planetRepository.deleteAllByIds(List.of(tatooineId, 999L));
+
+        assertThat(affected).isEqualTo(1);
+        assertThat(planetRepository.findAll()).extracting(Planet::getName).containsExactly("Hoth");
+    }
+
+    @Test
+    @DisplayName("patchAllByIds() should change only the given columns and refresh the normalized ones")
+    void patchAllByIds_ShouldUpdateGivenColumns() {
+        List<Long> ids = planetRepository.findAll().stream().map(Planet::getId).toList();
+
+        int affected = planetRepository.patchAllByIds(ids, null, " Temperate ", null);
+
+        assertThat(affected).isEqualTo(2);
+        assertThat(planetRepository.findAll())
+                .extracting(Planet::getName, Planet::getClimate, Planet::getClimateNormalized)
+                .containsExactlyInAnyOrder(
+                        tuple("Tatooine", " Temperate ", "temperate"),
+                        tuple("Hoth", " Temperate ", "temperate"));
+    }
+
     @Test
     @DisplayName("delete() should remove the planet and return empty optional on findById")
     void delete_ShouldReturnOptionalEmpty() {
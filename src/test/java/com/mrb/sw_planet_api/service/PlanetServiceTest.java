@@ -1,27 +1,65 @@
 package com.mrb.sw_planet_api.service;
 
+import com.mrb.sw_planet_api.dto.BatchGetResponse;
+import com.mrb.sw_planet_api.dto.BulkCreateResponse;
+import com.mrb.sw_planet_api.dto.FacetCountsResponse;
+import com.mrb.sw_planet_api.dto.PlanetCursor;
 import com.mrb.sw_planet_api.dto.PlanetPatchRequest;
 import com.mrb.sw_planet_api.dto.PlanetRequest;
 import com.mrb.sw_planet_api.dto.PlanetResponse;
+import com.mrb.sw_planet_api.exception.BulkCriteriaRequiredException;
 import com.mrb.sw_planet_api.exception.PlanetNotFoundException;
+import com.mrb.sw_planet_api.exception.PlanetVersionMismatchException;
 import com.mrb.sw_planet_api.mapper.PlanetMapper;
 import com.mrb.sw_planet_api.model.Planet;
 import com.mrb.sw_planet_api.repository.PlanetRepository;
+import com.mrb.sw_planet_api.repository.specification.MatchMode;
+import com.mrb.sw_planet_api.service.cache.PlanetCache;
+import com.mrb.sw_planet_api.service.cache.PlanetModificationCounter;
+import com.mrb.sw_planet_api.service.cache.ReadCoalescer;
+import com.mrb.sw_planet_api.service.cache.SearchCountCache;
+import com.mrb.sw_planet_api.service.cache.SearchResultCache;
+import com.mrb.sw_planet_api.service.event.PlanetChangedEvent;
+import com.mrb.sw_planet_api.service.index.PlanetFacetCounts;
+import com.mrb.sw_planet_api.service.index.PlanetFacetIndex;
+import com.mrb.sw_planet_api.service.index.PlanetNameIndex;
+import com.mrb.sw_planet_api.service.metrics.PlanetQueryMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
@@ -33,6 +71,39 @@ class PlanetServiceTest {
     @Mock
     private PlanetRepository planetRepository;
 
+    @Mock
+    private PlanetNameIndex planetNameIndex;
+
+    @Mock
+    private PlanetFacetIndex planetFacetIndex;
+
+    @Mock
+    private PlanetFacetCounts planetFacetCounts;
+
+    @Mock
+    private SearchCountCache searchCountCache;
+
+    @Mock
+    private PlanetCache planetCache;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @Mock
+    private PlanetModificationCounter planetModificationCounter;
+
+    @Spy
+    private ReadCoalescer readCoalescer = new ReadCoalescer(true, new PlanetModificationCounter(), new SimpleMeterRegistry());
+
+    @Spy
+    private PlanetQueryMetrics planetQueryMetrics = new PlanetQueryMetrics(new SimpleMeterRegistry());
+
+    @Mock
+    private ApplicationEventPublisher publisher;
+
+    @Mock
+    private Validator validator;
+
     //    @Autowired
     @InjectMocks
     private PlanetService planetService;
@@ -68,6 +139,7 @@ class PlanetServiceTest {
                 .isEqualTo(planet);
         // Spy = Test double, verify method calls of a mock object
         verify(planetRepository).save(any(Planet.class));
+        verify(planetModificationCounter).increment();
         verifyNoMoreInteractions(planetRepository);
     }
 
@@ -82,6 +154,110 @@ class PlanetServiceTest {
         verify(planetRepository, times(1)).save(any(Planet.class));
     }
 
+    @Test
+    @DisplayName("createAll() should insert the valid items in one batch and report the invalid ones by index")
+    void createAll_WithMixedItems_ReturnsPerItemResults() {
+        var invalid = new PlanetRequest("", "arid", "desert");
+        var hoth = new PlanetRequest("Hoth", "frozen", "ice");
+        Validator realValidator = Validation.buildDefaultValidatorFactory().getValidator();
+        when(validator.validate(any(PlanetRequest.class)))
+                .thenAnswer(invocation -> realValidator.validate(invocation.<PlanetRequest>getArgument(0)));
+        when(planetRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Planet> planets = invocation.getArgument(0);
+            for (int i = 0; i < planets.size(); i++) planets.get(i).setId(10L + i);
+            return planets;
+        });
+
+        BulkCreateResponse sut = planetService.createAll(List.of(planetRequest, invalid, hoth));
+
+        assertThat(sut.created()).isEqualTo(2);
+        assertThat(sut.failed()).isEqualTo(1);
+        assertThat(sut.items()).extracting(item -> item.status()).containsExactly(201, 400, 201);
+        assertThat(sut.items().get(1).errors()).containsKey("name");
+        assertThat(sut.items().get(2).planet().getId()).isEqualTo(11L);
+        verify(planetRepository, times(1)).insertAll(anyList());
+        verifyNoMoreInteractions(planetRepository);
+        verify(searchResultCache, times(1)).invalidateAll();
+        verify(publisher, times(2)).publishEvent(any(PlanetChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("createAll() should report a null item as invalid instead of passing it to the validator")
+    void createAll_WithNullItem_ReportsItAsInvalid() {
+        when(validator.validate(any(PlanetRequest.class))).thenReturn(Set.of());
+        when(planetRepository.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BulkCreateResponse sut = planetService.createAll(Arrays.asList(null, planetRequest));
+
+        assertThat(sut.items()).extracting(item -> item.status()).containsExactly(400, 201);
+        assertThat(sut.items().get(0).errors()).containsEntry("item", List.of("must not be null"));
+        verify(validator, times(1)).validate(planetRequest);
+    }
+
+    @Test
+    @DisplayName("findAllById() should serve cached ids, read the rest in one query and keep the request order")
+    void findAllById_WithCachedAndMissingIds_ReturnsPlanetsInRequestOrder() {
+        var hoth = new PlanetResponse(2L, "Hoth", "frozen", "ice");
+        when(planetCache.get(anyLong())).thenAnswer(invocation -> invocation.getArgument(0).equals(2L) ? hoth : null);
+        when(planetRepository.findAllById(List.of(3L, 1L, 9L)))
+                .thenReturn(List.of(new Planet(1L, "Tatooine", "arid", "desert"), new Planet(3L, "Endor", "temperate", "forest")));
+
+        BatchGetResponse sut = planetService.findAllById(List.of(3L, 2L, 1L, 9L, 3L));
+
+        assertThat(sut.planets()).extracting(PlanetResponse::getId).containsExactly(3L, 2L, 1L);
+        assertThat(sut.missing()).containsExactly(9L);
+        verify(planetRepository, times(1)).findAllById(List.of(3L, 1L, 9L));
+        verifyNoMoreInteractions(planetRepository);
+        verify(planetCache, times(2)).put(any(PlanetResponse.class), anyLong());
+    }
+
+    @Test
+    @DisplayName("deleteAll() with ids should run one delete statement and invalidate the caches")
+    void deleteAll_WithIds_DeletesInOneStatement() {
+        when(planetRepository.deleteAllByIds(List.of(1L, 2L))).thenReturn(1);
+
+        int sut = planetService.deleteAll(List.of(1L, 2L, 1L));
+
+        assertThat(sut).isEqualTo(1);
+        verify(planetRepository, times(1)).deleteAllByIds(List.of(1L, 2L));
+        verifyNoMoreInteractions(planetRepository);
+        verify(planetCache, times(1)).evictAll(List.of(1L, 2L));
+        verify(searchResultCache, times(1)).invalidateAll();
+        verify(publisher, times(1)).publishEvent(PlanetChangedEvent.deleted(1L));
+        verify(publisher, times(1)).publishEvent(PlanetChangedEvent.deleted(2L));
+    }
+
+    @Test
+    @DisplayName("deleteAll() without ids or filters should throw BulkCriteriaRequiredException")
+    void deleteAll_WithoutCriteria_ThrowsBulkCriteriaRequiredException() {
+        assertThatThrownBy(() -> planetService.deleteAll(null, " ", MatchMode.CONTAINS))
+                .isInstanceOf(BulkCriteriaRequiredException.class);
+        verifyNoInteractions(planetRepository);
+    }
+
+    @Test
+    @DisplayName("patchAll() should update every id in one statement and publish the changed rows")
+    void patchAll_WithIds_UpdatesInOneStatement() {
+        when(planetRepository.patchAllByIds(List.of(1L, 2L), null, "temperate", null)).thenReturn(2);
+        when(planetRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(
+                new Planet(1L, "Tatooine", "temperate", "desert"), new Planet(2L, "Hoth", "temperate", "ice")));
+
+        int sut = planetService.patchAll(List.of(1L, 2L), new PlanetPatchRequest(" ", "temperate", null));
+
+        assertThat(sut).isEqualTo(2);
+        verify(planetRepository, times(1)).patchAllByIds(List.of(1L, 2L), null, "temperate", null);
+        verify(planetCache, times(1)).evictAll(List.of(1L, 2L));
+        verify(searchResultCache, times(1)).invalidateAll();
+        verify(publisher, times(2)).publishEvent(any(PlanetChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("patchAll() with nothing to change should not touch the database")
+    void patchAll_WithEmptyPatch_ReturnsZero() {
+        assertThat(planetService.patchAll(List.of(1L), new PlanetPatchRequest(null, "", null))).isZero();
+        verifyNoInteractions(planetRepository, planetCache, searchResultCache, publisher);
+    }
+
     // Exercise 1 ______________________________________________________________________________________________________
     @Test
     @DisplayName("findById() should return a Planet with valid ID")
@@ -95,6 +271,19 @@ class PlanetServiceTest {
                 .isEqualTo(planetResponse);
 
         verify(planetRepository, times(1)).findById(1L);
+        verify(planetCache, times(1)).put(any(PlanetResponse.class), anyLong());
+        verify(readCoalescer, times(1)).load(eq("findById"), eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("findById() should return the cached PlanetResponse without querying the repository")
+    void findById_WithCachedId_ReturnsCachedResponse() {
+        when(planetCache.get(1L)).thenReturn(planetResponse);
+
+        PlanetResponse sut = planetService.findById(1L);
+
+        assertThat(sut).isSameAs(planetResponse);
+        verifyNoInteractions(planetRepository);
     }
 
     @Test
@@ -126,25 +315,250 @@ class PlanetServiceTest {
     @Test
     @DisplayName("findByName() should return a PlanetResponse with valid name input")
     void findByName_WithValidName_ReturnsPlanetResponse() {
-        when(planetRepository.findByNameContainingIgnoreCase(eq("name"))).thenReturn(Optional.of(planet));
+        when(planetRepository.findFirstByNameNormalizedOrderByIdAsc(eq("name"))).thenReturn(Optional.of(planet));
 
         PlanetResponse planetResponse = planetService.findByName("name");
 
         assertThat(planetResponse).usingRecursiveComparison().isEqualTo(planet);
 
-        verify(planetRepository, times(1)).findByNameContainingIgnoreCase(eq("name"));
+        verify(planetRepository, times(1)).findFirstByNameNormalizedOrderByIdAsc(eq("name"));
+        verifyNoMoreInteractions(planetRepository);
+    }
+
+    @Test
+    @DisplayName("findByName() should probe the exact tier case-insensitively")
+    void findByName_WithDifferentCase_ProbesLowercasedName() {
+        when(planetRepository.findFirstByNameNormalizedOrderByIdAsc(eq("name"))).thenReturn(Optional.of(planet));
+
+        PlanetResponse planetResponse = planetService.findByName("NaMe");
+
+        assertThat(planetResponse).usingRecursiveComparison().isEqualTo(planet);
+        verifyNoMoreInteractions(planetRepository);
+    }
+
+    @Test
+    @DisplayName("findByName() should fall back to a prefix match when there is no exact match")
+    void findByName_WithPrefixName_ReturnsPrefixMatch() {
+        when(planetRepository.findFirstByNameStartingWithIgnoreCaseOrderByNameAscIdAsc(eq("nam"))).thenReturn(Optional.of(planet));
+
+        PlanetResponse planetResponse = planetService.findByName("nam");
+
+        assertThat(planetResponse).usingRecursiveComparison().isEqualTo(planet);
+
+        verify(planetRepository, times(1)).findFirstByNameNormalizedOrderByIdAsc(eq("nam"));
+        verify(planetRepository, times(1)).findFirstByNameStartingWithIgnoreCaseOrderByNameAscIdAsc(eq("nam"));
+        verify(planetRepository, never()).findFirstByNameContainingIgnoreCaseOrderByNameAscIdAsc(any(String.class));
     }
 
     @Test
     @DisplayName("findByName() should return PlanetNotFoundException with name input not found")
     void findByName_WithNotFoundName_ReturnsPlanetNotFoundException() {
-        when(planetRepository.findByNameContainingIgnoreCase(any(String.class))).thenReturn(Optional.empty());
-
         assertThatThrownBy(() -> planetService.findByName("name"))
                 .isInstanceOf(PlanetNotFoundException.class)
                 .hasMessageContaining("Planet not found with name " + "name");
 
-        verify(planetRepository, times(1)).findByNameContainingIgnoreCase(any(String.class));
+        verify(planetRepository, times(1)).findFirstByNameNormalizedOrderByIdAsc(any(String.class));
+        verify(planetRepository, times(1)).findFirstByNameStartingWithIgnoreCaseOrderByNameAscIdAsc(any(String.class));
+        verify(planetRepository, times(1)).findFirstByNameContainingIgnoreCaseOrderByNameAscIdAsc(any(String.class));
+    }
+
+    @Test
+    @DisplayName("findByName() should fetch only the first candidate row when the name index is ready")
+    void findByName_WithIndexReady_FetchesCandidateById() {
+        when(planetNameIndex.isReady()).thenReturn(true);
+        when(planetNameIndex.search("nam")).thenReturn(List.of(1L, 7L));
+        when(planetRepository.findById(1L)).thenReturn(Optional.of(planet));
+
+        PlanetResponse sut = planetService.findByName("nam");
+
+        assertThat(sut).usingRecursiveComparison().isEqualTo(planet);
+
+        verify(planetRepository, times(1)).findById(1L);
+        verifyNoMoreInteractions(planetRepository);
+    }
+
+    @Test
+    @DisplayName("findByName() should return PlanetNotFoundException when the name index has no candidates")
+    void findByName_WithIndexReadyAndNoCandidates_ReturnsPlanetNotFoundException() {
+        when(planetNameIndex.isReady()).thenReturn(true);
+        when(planetNameIndex.search("name")).thenReturn(List.of());
+
+        assertThatThrownBy(() -> planetService.findByName("name"))
+                .isInstanceOf(PlanetNotFoundException.class);
+
+        verifyNoInteractions(planetRepository);
+    }
+
+    @Test
+    @DisplayName("findMatches() should query ranked matches with escaped LIKE patterns and ignore the client sort")
+    void findMatches_WithoutIndex_QueriesRankedPage() {
+        when(planetRepository.findRankedByName("na_me", "na!_me%", "%na!_me%", PageRequest.of(0, 15)))
+                .thenReturn(List.of(planet));
+
+        Page<PlanetResponse> sut = planetService.findMatches("Na_me", PageRequest.of(0, 15, Sort.by("terrain")));
+
+        assertThat(sut.getContent()).extracting(PlanetResponse::getName).containsExactly("name");
+        assertThat(sut.getTotalElements()).isEqualTo(1);
+        verify(planetRepository, times(1)).findRankedByName("na_me", "na!_me%", "%na!_me%", PageRequest.of(0, 15));
+        verifyNoMoreInteractions(planetRepository);
+    }
+
+    @Test
+    @DisplayName("findMatches() should count matches with a separate query when the page is full")
+    void findMatches_WithFullPage_CountsSeparately() {
+        when(planetRepository.findRankedByName("name", "name%", "%name%", PageRequest.of(0, 1)))
+                .thenReturn(List.of(planet));
+        when(planetRepository.countByNameLike("%name%")).thenReturn(3L);
+
+        Page<PlanetResponse> sut = planetService.findMatches("name", PageRequest.of(0, 1));
+
+        assertThat(sut.getTotalElements()).isEqualTo(3);
+        verify(planetRepository, times(1)).countByNameLike("%name%");
+    }
+
+    @Test
+    @DisplayName("findMatches() should fetch only the requested page of ranked ids when the name index is ready")
+    void findMatches_WithIndexReady_FetchesPageIdsInRankOrder() {
+        var hoth = new Planet(2L, "Hoth", "frozen", "ice");
+        var endor = new Planet(3L, "Endor", "temperate", "forest");
+        when(planetNameIndex.isReady()).thenReturn(true);
+        when(planetNameIndex.search("o")).thenReturn(List.of(1L, 4L, 3L, 2L));
+        when(planetRepository.findAllById(List.of(3L, 2L))).thenReturn(List.of(hoth, endor));
+
+        Page<PlanetResponse> sut = planetService.findMatches("o", PageRequest.of(1, 2));
+
+        assertThat(sut.getContent()).extracting(PlanetResponse::getId).containsExactly(3L, 2L);
+        assertThat(sut.getTotalElements()).isEqualTo(4);
+        verify(planetRepository, times(1)).findAllById(List.of(3L, 2L));
+        verifyNoMoreInteractions(planetRepository);
+    }
+
+    @Test
+    @DisplayName("find() with a token match and the facet index ready should page over the index bitmap")
+    void find_WithTokenMatchAndFacetIndexReady_PagesOverBitmap() {
+        var ids = new BitSet();
+        ids.set(2);
+        ids.set(5);
+        ids.set(7);
+        when(planetFacetIndex.isReady()).thenReturn(true);
+        when(planetFacetIndex.match(Set.of("arid", "windy"), Set.of(), true)).thenReturn(ids);
+        when(planetRepository.findAllById(List.of(7L))).thenReturn(List.of(new Planet(7L, "Jakku", "arid, windy", "desert")));
+
+        Page<PlanetResponse> sut = planetService.find("Arid, windy", null, MatchMode.ALL_TOKENS, PageRequest.of(1, 2));
+
+        assertThat(sut.getContent()).extracting(PlanetResponse::getName).containsExactly("Jakku");
+        assertThat(sut.getTotalElements()).isEqualTo(3);
+        verify(planetRepository, times(1)).findAllById(List.of(7L));
+        verifyNoMoreInteractions(planetRepository);
+        verifyNoInteractions(searchResultCache);
+    }
+
+    @Test
+    @DisplayName("find() with a token match should return the requested name order whether or not the facet index is ready")
+    void find_WithTokenMatchSortedByName_ReturnsSameOrderWithAndWithoutFacetIndex() {
+        var ids = new BitSet();
+        ids.set(2);
+        ids.set(5);
+        var byName = PageRequest.of(0, 2, Sort.by("name"));
+        Slice<Planet> rows = new SliceImpl<>(List.of(new Planet(5L, "Geonosis", "arid", "rocky"),
+                new Planet(2L, "Tatooine", "arid", "desert")), byName, false);
+        when(planetRepository.findBy(ArgumentMatchers.<Specification<Planet>>any(), any())).thenReturn(rows);
+        when(planetRepository.count(ArgumentMatchers.<Specification<Planet>>any())).thenReturn(2L);
+        when(planetFacetIndex.isReady()).thenReturn(false, true);
+        when(planetFacetIndex.match(Set.of("arid"), Set.of(), true)).thenReturn(ids);
+
+        Page<PlanetResponse> withoutIndex = planetService.find("arid", null, MatchMode.ALL_TOKENS, byName);
+        Page<PlanetResponse> withIndex = planetService.find("arid", null, MatchMode.ALL_TOKENS, byName);
+
+        assertThat(withIndex.getContent()).extracting(PlanetResponse::getName).containsExactly("Geonosis", "Tatooine");
+        assertThat(withIndex.getContent()).usingRecursiveFieldByFieldElementComparator().isEqualTo(withoutIndex.getContent());
+        assertThat(withIndex.getSort()).isEqualTo(withoutIndex.getSort()).isEqualTo(Sort.by("name"));
+        assertThat(withIndex.getTotalElements()).isEqualTo(withoutIndex.getTotalElements()).isEqualTo(2);
+        // with the index ready the page is read by id and the total comes from the bitmap, so COUNT only ran without it
+        verify(planetRepository, times(1)).count(ArgumentMatchers.<Specification<Planet>>any());
+        verify(planetRepository, never()).findAllById(anyList());
+    }
+
+    @Test
+    @DisplayName("find() with a token match in the default name order should filter by the bitmap ids instead of the token LIKE")
+    void find_WithTokenMatchDefaultNameSort_FiltersByBitmapIds() {
+        var ids = new BitSet();
+        ids.set(2);
+        ids.set(5);
+        var byName = PageRequest.of(0, 15, Sort.by("name"));
+        when(planetFacetIndex.isReady()).thenReturn(true);
+        when(planetFacetIndex.match(Set.of("arid"), Set.of(), true)).thenReturn(ids);
+        when(planetRepository.findBy(ArgumentMatchers.<Specification<Planet>>any(), any())).thenReturn(new SliceImpl<>(
+                List.of(new Planet(5L, "Geonosis", "arid", "rocky"), new Planet(2L, "Tatooine", "arid", "desert")), byName, false));
+
+        Page<PlanetResponse> sut = planetService.find("arid", null, MatchMode.ALL_TOKENS, byName);
+
+        assertThat(sut.getContent()).extracting(PlanetResponse::getName).containsExactly("Geonosis", "Tatooine");
+        assertThat(sut.getTotalElements()).isEqualTo(2);
+        ArgumentCaptor<Specification<Planet>> filter = ArgumentCaptor.captor();
+        verify(planetRepository, times(1)).findBy(filter.capture(), any());
+        Root<Planet> root = mock(Root.class);
+        Path<Object> id = mock(Path.class);
+        CriteriaBuilder builder = mock(CriteriaBuilder.class);
+        when(root.get("id")).thenReturn(id);
+        filter.getValue().toPredicate(root, mock(CriteriaQuery.class), builder);
+        verify(id).in(List.of(2L, 5L));
+        verifyNoInteractions(builder, searchResultCache);
+        verifyNoMoreInteractions(planetRepository);
+    }
+
+    @Test
+    @DisplayName("find() with a token match sorted by id should page over the bitmap and keep the sort")
+    void find_WithTokenMatchSortedById_PagesOverBitmapWithSort() {
+        var ids = new BitSet();
+        ids.set(2);
+        ids.set(5);
+        when(planetFacetIndex.isReady()).thenReturn(true);
+        when(planetFacetIndex.match(Set.of("arid"), Set.of(), true)).thenReturn(ids);
+        when(planetRepository.findAllById(List.of(2L, 5L))).thenReturn(List.of(
+                new Planet(5L, "Geonosis", "arid", "rocky"), new Planet(2L, "Tatooine", "arid", "desert")));
+
+        Page<PlanetResponse> sut = planetService.find("arid", null, MatchMode.ALL_TOKENS, PageRequest.of(0, 2, Sort.by("id")));
+
+        assertThat(sut.getContent()).extracting(PlanetResponse::getId).containsExactly(2L, 5L);
+        assertThat(sut.getSort()).isEqualTo(Sort.by("id"));
+        verifyNoInteractions(searchResultCache);
+    }
+
+    @Test
+    @DisplayName("approximateCount() with a token match and the facet index ready should return the bitmap cardinality")
+    void approximateCount_WithTokenMatchAndFacetIndexReady_ReturnsCardinality() {
+        var ids = new BitSet();
+        ids.set(1, 4);
+        when(planetFacetIndex.isReady()).thenReturn(true);
+        when(planetFacetIndex.match(Set.of("arid"), Set.of("desert", "rocky"), false)).thenReturn(ids);
+
+        assertThat(planetService.approximateCount("arid", "desert,rocky", MatchMode.ANY_TOKEN)).isEqualTo(3);
+        verifyNoInteractions(planetRepository, searchCountCache);
+    }
+
+    @Test
+    @DisplayName("facetCounts() without filters should return the always-on aggregates")
+    void facetCounts_WithoutFilters_ReturnsAggregates() {
+        var counts = new FacetCountsResponse(Map.of("arid", 2L, "temperate", 5L), Map.of("desert", 2L));
+        when(planetFacetCounts.counts(null)).thenReturn(counts);
+
+        FacetCountsResponse sut = planetService.facetCounts(null, null, MatchMode.CONTAINS);
+
+        assertThat(sut).isSameAs(counts);
+        verifyNoInteractions(planetRepository, planetFacetIndex);
+    }
+
+    @Test
+    @DisplayName("facetCounts() with a filter the facet index cannot answer should count the matching rows grouped")
+    void facetCounts_WithContainsFilter_CountsGroupedMatchingRows() {
+        var counts = new FacetCountsResponse(Map.of("arid", 2L), Map.of("desert", 2L));
+        when(planetFacetCounts.counts(ArgumentMatchers.<Specification<Planet>>notNull())).thenReturn(counts);
+
+        FacetCountsResponse sut = planetService.facetCounts("arid", null, MatchMode.CONTAINS);
+
+        assertThat(sut).isSameAs(counts);
+        verifyNoInteractions(planetRepository);
     }
 
     // Exercise 3 ______________________________________________________________________________________________________
@@ -153,10 +567,9 @@ class PlanetServiceTest {
     void find_WithValidDataInput_ReturnsPlanetsResponse() {
         var planets = List.of(
                 new Planet(1L, "Tatooine", "arid", "desert"));
-        PageImpl<Planet> planetPage = new PageImpl<>(planets, Pageable.unpaged(), planets.size());
+        Slice<Planet> rows = new SliceImpl<>(planets, Pageable.unpaged(), false);
 
-        when(planetRepository.findAll(ArgumentMatchers.<Specification<Planet>>any(),
-                any(Pageable.class))).thenReturn(planetPage);
+        when(planetRepository.findBy(ArgumentMatchers.<Specification<Planet>>any(), any())).thenReturn(rows);
 
         Page<PlanetResponse> sut = planetService.find("arid", "desert", Pageable.unpaged());
 
@@ -165,51 +578,110 @@ class PlanetServiceTest {
                 .extracting(PlanetResponse::getName)
                 .containsExactly("Tatooine");
 
-        verify(planetRepository, times(1))
-                .findAll(ArgumentMatchers.<Specification<Planet>>any(), any(Pageable.class));
+        verify(planetRepository, times(1)).findBy(ArgumentMatchers.<Specification<Planet>>any(), any());
+        verifyNoMoreInteractions(planetRepository);
+    }
+
+    @Test
+    @DisplayName("find() should run the count as its own query when the page is full")
+    void find_WithFullPage_CountsSeparately() {
+        Slice<Planet> rows = new SliceImpl<>(List.of(planet), PageRequest.of(0, 1), true);
+        when(planetRepository.findBy(ArgumentMatchers.<Specification<Planet>>any(), any())).thenReturn(rows);
+        when(planetRepository.count(ArgumentMatchers.<Specification<Planet>>any())).thenReturn(42L);
+
+        Page<PlanetResponse> sut = planetService.find("arid", null, PageRequest.of(0, 1));
+
+        assertThat(sut.getContent()).extracting(PlanetResponse::getName).containsExactly("name");
+        assertThat(sut.getTotalElements()).isEqualTo(42);
+        verify(planetRepository, times(1)).findBy(ArgumentMatchers.<Specification<Planet>>any(), any());
+        verify(planetRepository, times(1)).count(ArgumentMatchers.<Specification<Planet>>any());
+        verifyNoMoreInteractions(planetRepository);
     }
 
     @Test
     @DisplayName("find() should return a empty page of Planet with not found data input")
     void find_WithNotFoundDataInput_ReturnsEmptyPage() {
         List<Planet> planets = List.of();
-        PageImpl<Planet> emptyPlanetPage = new PageImpl<>(planets, Pageable.unpaged(), 0);
-        when(planetRepository.findAll(any(Pageable.class))).thenReturn(emptyPlanetPage);
+        Slice<Planet> emptyRows = new SliceImpl<>(planets, Pageable.unpaged(), false);
+        when(planetRepository.findBy(ArgumentMatchers.<Specification<Planet>>any(), any())).thenReturn(emptyRows);
 
         Page<PlanetResponse> sut = planetService.find(null, null, Pageable.unpaged());
 
         assertThat(sut.getContent()).isEmpty();
         assertThat(sut.getTotalElements()).isEqualTo(0);
 
-        verify(planetRepository, times(1)).findAll(any(Pageable.class));
+        verify(planetRepository, times(1)).findBy(ArgumentMatchers.<Specification<Planet>>any(), any());
+    }
+
+    @Test
+    @DisplayName("find() should return a cached page without querying the repository")
+    void find_WithCachedPage_ReturnsCachedPage() {
+        var key = new SearchResultCache.Key(0L, "arid", "", MatchMode.CONTAINS, 0, 15, "UNSORTED", true);
+        Page<PlanetResponse> cachedPage = new PageImpl<>(List.of(planetResponse));
+        when(searchResultCache.key("arid", null, MatchMode.CONTAINS, PageRequest.of(0, 15), true)).thenReturn(key);
+        when(searchResultCache.get(key)).thenReturn(cachedPage);
+
+        Page<PlanetResponse> sut = planetService.find("arid", null, PageRequest.of(0, 15));
+
+        assertThat(sut).isSameAs(cachedPage);
+        verifyNoInteractions(planetRepository);
+    }
+
+    @Test
+    @DisplayName("findSlice() should return a slice without running a count query")
+    void findSlice_WithValidDataInput_ReturnsSlice() {
+        Slice<Planet> slice = new SliceImpl<>(List.of(planet), PageRequest.of(0, 1), true);
+        when(planetRepository.findBy(ArgumentMatchers.<Specification<Planet>>any(), any())).thenReturn(slice);
+
+        Slice<PlanetResponse> sut = planetService.findSlice("arid", "desert", MatchMode.CONTAINS, PageRequest.of(0, 1));
+
+        assertThat(sut.getContent()).extracting(PlanetResponse::getName).containsExactly("name");
+        assertThat(sut.hasNext()).isTrue();
+        verify(planetRepository, times(1)).findBy(ArgumentMatchers.<Specification<Planet>>any(), any());
+        verifyNoMoreInteractions(planetRepository);
+    }
+
+    @Test
+    @DisplayName("find() with a cursor should return a slice without running a count query")
+    void find_WithCursor_ReturnsSlice() {
+        Window<Planet> window = Window.from(List.of(planet), index -> ScrollPosition.keyset(), true);
+        when(planetRepository.findBy(ArgumentMatchers.<Specification<Planet>>any(), any())).thenReturn(window);
+
+        Slice<PlanetResponse> sut = planetService.find("arid", null, MatchMode.CONTAINS, new PlanetCursor("Alderaan", 2L), 1);
+
+        assertThat(sut.getContent()).extracting(PlanetResponse::getName).containsExactly("name");
+        assertThat(sut.hasNext()).isTrue();
+        verify(planetRepository, times(1)).findBy(ArgumentMatchers.<Specification<Planet>>any(), any());
+        verifyNoMoreInteractions(planetRepository);
     }
 
     // Exercise 4 ______________________________________________________________________________________________________
     @Test
     @DisplayName("delete() should return void with valid ID input")
     void delete_WithValidID_ReturnsVoid() {
-        when(planetRepository.findById(1L)).thenReturn(Optional.of(planet));
-        doNothing().when(planetRepository).delete(planet);
+        when(planetRepository.deleteAllByIds(List.of(1L))).thenReturn(1);
 
         Map<String, String > message = planetService.delete(1L);
 
         assertThat(message).isEqualTo(Map.of("message", "Planet deleted successfully"));
 
-        verify(planetRepository, times(1)).findById(1L);
-        verify(planetRepository, times(1)).delete(planet);
+        verify(planetRepository, times(1)).deleteAllByIds(List.of(1L));
+        verifyNoMoreInteractions(planetRepository);
+        verify(publisher, times(1)).publishEvent(PlanetChangedEvent.deleted(1L));
     }
 
     @Test
     @DisplayName("delete() should return a PlanetNotFoundException with invalid ID input")
     void delete_WithIdNotFound_ReturnsPlanetNotFoundException() {
-        when(planetRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(planetRepository.deleteAllByIds(List.of(99L))).thenReturn(0);
 
         assertThatThrownBy(() -> planetService.delete(99L))
                 .isInstanceOf(PlanetNotFoundException.class)
                 .hasMessageContaining("Planet not found with id " + 99L);
 
-        verify(planetRepository, times(1)).findById(99L);
-        verify(planetRepository, never()).delete(any(Planet.class));
+        verify(planetRepository, times(1)).deleteAllByIds(List.of(99L));
+        verifyNoMoreInteractions(planetRepository);
+        verifyNoInteractions(publisher);
     }
 
     //______________________________________________________________________________________________________________________
@@ -217,12 +689,13 @@ class PlanetServiceTest {
     @DisplayName("patch() should return a PlanetResponse patched")
     void patch_WithValidDataInput_ReturnsPlanetResponse() {
         when(planetRepository.findById(anyLong())).thenReturn(Optional.of(planet));
+        when(planetRepository.saveAndFlush(planet)).thenReturn(planet);
 
         PlanetResponse response = planetService.patch(1L, planetPatchRequest);
 
 //      This way of comparing fields gets the exact value between two objects
         assertThat(response).usingRecursiveComparison()
-                .ignoringFields("id")
+                .ignoringFields("id", "version")
                 .isEqualTo(planetPatchRequest);
 
 //      This way of comparing is good for explicit readability
@@ -237,9 +710,38 @@ class PlanetServiceTest {
 //                .containsExactly(pathRequest.name(), pathRequest.climate(), pathRequest.terrain());
 
         verify(planetRepository, times(1)).findById(1L);
+        verify(planetRepository, times(1)).saveAndFlush(planet);
         verifyNoMoreInteractions(planetRepository);
     }
 
+    @Test
+    @DisplayName("patch() should return the version written by the flushed UPDATE")
+    void patch_WithVersionedPlanet_ReturnsFlushedVersion() {
+        planet.setVersion(3L);
+        var flushed = new Planet(1L, planetPatchRequest.name(), planetPatchRequest.climate(), planetPatchRequest.terrain());
+        flushed.setVersion(4L);
+        when(planetRepository.findById(anyLong())).thenReturn(Optional.of(planet));
+        when(planetRepository.saveAndFlush(planet)).thenReturn(flushed);
+
+        PlanetResponse response = planetService.patch(1L, planetPatchRequest, 3L);
+
+        assertThat(response.getVersion()).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("patch() should let a racing write without If-Match surface as a conflict, and with one as a version mismatch")
+    void patch_WithRacingWrite_ThrowsConflictOrVersionMismatch() {
+        planet.setVersion(3L);
+        when(planetRepository.findById(anyLong())).thenReturn(Optional.of(planet));
+        when(planetRepository.saveAndFlush(planet)).thenThrow(new ObjectOptimisticLockingFailureException(Planet.class, 1L));
+
+        assertThatThrownBy(() -> planetService.patch(1L, planetPatchRequest))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThatThrownBy(() -> planetService.patch(1L, planetPatchRequest, 3L))
+                .isInstanceOf(PlanetVersionMismatchException.class);
+        verifyNoInteractions(publisher);
+    }
+
     @Test
     @DisplayName("patch() should return a PlanetNotFoundException when ID is invalid")
     void patch_WithInvalidId_ReturnPlanetNotFoundException() {
@@ -256,29 +758,71 @@ class PlanetServiceTest {
     @Test
     @DisplayName("update() should return a PlanetResponse")
     void update_WithValidDataInput_ReturnsPlanetResponse() {
-        when(planetRepository.findById(anyLong())).thenReturn(Optional.of(planet));
-
         planetRequest.setName("Hoth");
+        when(planetRepository.updateById(1L, null, "Hoth", planetRequest.getClimate(), planetRequest.getTerrain())).thenReturn(1);
+
         PlanetResponse response = planetService.update(1L, planetRequest);
 
         assertThat(response).usingRecursiveComparison()
-                .ignoringFields("id")
+                .ignoringFields("id", "version")
                 .isEqualTo(planetRequest);
 
-        verify(planetRepository, times(1)).findById(1L);
+        verify(planetCache, times(1)).evict(1L);
+        verify(searchResultCache, times(1)).invalidateAll();
+        verify(planetRepository, times(1)).updateById(1L, null, "Hoth", planetRequest.getClimate(), planetRequest.getTerrain());
         verifyNoMoreInteractions(planetRepository);
     }
 
     @Test
     @DisplayName("update() should return a PlanetNotFoundException when ID is invalid")
     void update_WithInvalidId_ReturnPlanetNotFoundException() {
-        when(planetRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(planetRepository.updateById(anyLong(), isNull(), anyString(), anyString(), anyString())).thenReturn(0);
 
         assertThatThrownBy(() -> planetService.update(99L, planetRequest))
                 .isInstanceOf(PlanetNotFoundException.class)
                 .hasMessageContaining("Planet not found with id " + 99L);
 
-        verify(planetRepository, times(1)).findById(99L);
+        verify(planetRepository, times(1)).updateById(eq(99L), isNull(), anyString(), anyString(), anyString());
+        verifyNoMoreInteractions(planetRepository);
+    }
+
+    @Test
+    @DisplayName("patch() should return a PlanetVersionMismatchException when the expected version is stale")
+    void patch_WithStaleVersion_ReturnPlanetVersionMismatchException() {
+        planet.setVersion(3L);
+        when(planetRepository.findById(anyLong())).thenReturn(Optional.of(planet));
+
+        assertThatThrownBy(() -> planetService.patch(1L, planetPatchRequest, 2L))
+                .isInstanceOf(PlanetVersionMismatchException.class)
+                .hasMessageContaining("Planet with id 1 was modified");
+
+        verify(planetRepository, times(1)).findById(1L);
+        verifyNoMoreInteractions(planetRepository);
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    @DisplayName("update() should return the bumped version when the expected one matches")
+    void update_WithMatchingVersion_ReturnsNextVersion() {
+        when(planetRepository.updateById(1L, 2L, planetRequest.getName(), planetRequest.getClimate(), planetRequest.getTerrain())).thenReturn(1);
+
+        PlanetResponse response = planetService.update(1L, planetRequest, 2L);
+
+        assertThat(response.getVersion()).isEqualTo(3L);
+        verify(planetRepository, times(1)).updateById(1L, 2L, planetRequest.getName(), planetRequest.getClimate(), planetRequest.getTerrain());
         verifyNoMoreInteractions(planetRepository);
     }
+
+    @Test
+    @DisplayName("update() should return a PlanetVersionMismatchException when the planet exists with another version")
+    void update_WithStaleVersion_ReturnPlanetVersionMismatchException() {
+        when(planetRepository.updateById(anyLong(), anyLong(), anyString(), anyString(), anyString())).thenReturn(0);
+        when(planetRepository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> planetService.update(1L, planetRequest, 2L))
+                .isInstanceOf(PlanetVersionMismatchException.class);
+
+        verify(planetRepository, times(1)).existsById(1L);
+        verifyNoInteractions(publisher);
+    }
 }
@@ -0,0 +1,77 @@
+package com.mrb.sw_planet_api.service.cache;
+
+import com.mrb.sw_planet_api.dto.PlanetResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlanetCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PlanetCache cache = new PlanetCache(true, 100, Duration.ofMinutes(1), registry);
+    private final PlanetResponse tatooine = new PlanetResponse(1L, "Tatooine", "arid", "desert");
+
+    @Test
+    @DisplayName("get() should return cached planets and count hits and misses")
+    void get_ShouldReadThroughAndRecordStats() {
+        assertThat(cache.get(1L)).isNull();
+        cache.put(tatooine, cache.stamp());
+        assertThat(cache.get(1L)).isSameAs(tatooine);
+
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "planets.by-id").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("evict() should drop the entry now and again after the surrounding transaction commits")
+    void evict_InsideTransaction_EvictsAgainAfterCommit() {
+        cache.put(tatooine, cache.stamp());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evict(1L);
+            assertThat(cache.get(1L)).isNull();
+
+            // a concurrent reader re-populates the pre-commit row before the commit lands
+            cache.put(tatooine, cache.stamp());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("put() should drop a row read before a write that committed ahead of the put")
+    void put_AfterCommitOfConcurrentWrite_DoesNotCacheOldRow() {
+        // reader misses and reads the old row
+        long stamp = cache.stamp();
+        // writer commits, running its after-commit eviction
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evict(1L);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        // reader stores what it read
+        cache.put(tatooine, stamp);
+
+        assertThat(cache.get(1L)).isNull();
+        cache.put(tatooine, cache.stamp());
+        assertThat(cache.get(1L)).isSameAs(tatooine);
+    }
+
+    @Test
+    @DisplayName("get() should always miss when the cache is disabled")
+    void get_WhenDisabled_ReturnsNull() {
+        var disabled = new PlanetCache(false, 100, Duration.ofMinutes(1), registry);
+        disabled.put(tatooine, disabled.stamp());
+        assertThat(disabled.get(1L)).isNull();
+    }
+}
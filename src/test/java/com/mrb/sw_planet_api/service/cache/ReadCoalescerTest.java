@@ -0,0 +1,143 @@
+package com.mrb.sw_planet_api.service.cache;
+
+import com.mrb.sw_planet_api.exception.PlanetNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReadCoalescerTest {
+
+    private static final int CALLERS = 32;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PlanetModificationCounter modifications = new PlanetModificationCounter();
+    private final ReadCoalescer coalescer = new ReadCoalescer(true, modifications, registry);
+
+    @Test
+    @DisplayName("load() should run one load for concurrent identical calls and hand its result to all of them")
+    void load_UnderContention_SharesOneLoad() throws Exception {
+        var loads = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        List<Object> results = callConcurrently(() -> coalescer.load("findById", 1L, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "Tatooine";
+        }), release);
+
+        assertThat(loads).hasValue(1);
+        assertThat(results).hasSize(CALLERS).containsOnly("Tatooine");
+        assertThat(count("planets.reads.loads", "findById")).isEqualTo(1.0);
+        assertThat(count("planets.reads.coalesced", "findById")).isEqualTo(CALLERS - 1.0);
+        assertThat(registry.get("planets.reads.in-flight").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("load() should rethrow the leader's exception to every caller that joined it")
+    void load_WhenLoadFails_EveryCallerSeesTheException() throws Exception {
+        var release = new CountDownLatch(1);
+        List<Object> results = callConcurrently(() -> {
+            try {
+                return coalescer.load("findById", 99L, () -> {
+                    await(release);
+                    throw new PlanetNotFoundException(99L);
+                });
+            } catch (PlanetNotFoundException exception) {
+                return exception;
+            }
+        }, release);
+
+        assertThat(results).hasSize(CALLERS).allMatch(PlanetNotFoundException.class::isInstance);
+    }
+
+    @Test
+    @DisplayName("load() should not share loads across methods, arguments or table modifications")
+    void load_WithDifferentKeys_LoadsSeparately() throws Exception {
+        var release = new CountDownLatch(1);
+        var loads = new AtomicInteger();
+        Supplier<String> slowLoad = () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "planet";
+        };
+        try (ExecutorService pool = Executors.newFixedThreadPool(4)) {
+            var byId = pool.submit(() -> coalescer.load("findById", 1L, slowLoad));
+            var otherId = pool.submit(() -> coalescer.load("findById", 2L, slowLoad));
+            var byName = pool.submit(() -> coalescer.load("findByName", 1L, slowLoad));
+            waitFor(() -> loads.get() == 3);
+            modifications.increment();
+            var afterWrite = pool.submit(() -> coalescer.load("findById", 1L, slowLoad));
+            waitFor(() -> loads.get() == 4);
+            release.countDown();
+            for (Future<String> result : List.of(byId, otherId, byName, afterWrite)) assertThat(result.get()).isEqualTo("planet");
+        }
+        assertThat(loads).hasValue(4);
+        assertThat(registry.find("planets.reads.coalesced").counters()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("load() should call the loader every time when coalescing is disabled")
+    void load_WhenDisabled_AlwaysLoads() {
+        var disabled = new ReadCoalescer(false, modifications, registry);
+        var loads = new AtomicInteger();
+        disabled.load("findById", 1L, loads::incrementAndGet);
+        disabled.load("findById", 1L, loads::incrementAndGet);
+        assertThat(loads).hasValue(2);
+    }
+
+    // Starts every caller, waits until one is loading and the rest are parked on it, then releases the load
+    private List<Object> callConcurrently(Supplier<Object> call, CountDownLatch release) throws Exception {
+        var ready = new CountDownLatch(CALLERS);
+        List<Future<Object>> futures = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(CALLERS)) {
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(pool.submit(() -> {
+                    ready.countDown();
+                    return call.get();
+                }));
+            }
+            assertThat(ready.await(5, TimeUnit.SECONDS)).isTrue();
+            waitFor(() -> joined() == CALLERS - 1);
+            release.countDown();
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> future : futures) results.add(future.get(5, TimeUnit.SECONDS));
+            return results;
+        }
+    }
+
+    private double joined() {
+        var counter = registry.find("planets.reads.coalesced").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private double count(String name, String method) {
+        return registry.get(name).tag("method", method).counter().count();
+    }
+
+    private static void waitFor(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.get()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.mrb.sw_planet_api.service.cache;
+
+import com.mrb.sw_planet_api.repository.specification.MatchMode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchCountCacheTest {
+
+    private final SearchCountCache cache = new SearchCountCache(Duration.ofMinutes(1), 16);
+
+    @Test
+    @DisplayName("get() should count once per normalized filter until the entry expires")
+    void get_WithSameNormalizedFilter_CountsOnce() {
+        var counts = new AtomicInteger();
+
+        long first = cache.get("Arid", null, MatchMode.CONTAINS, () -> counts.incrementAndGet() * 10L);
+        long second = cache.get(" arid ", "", MatchMode.CONTAINS, () -> counts.incrementAndGet() * 10L);
+        long other = cache.get("arid", "desert", MatchMode.CONTAINS, () -> counts.incrementAndGet() * 10L);
+
+        assertThat(first).isEqualTo(10L);
+        assertThat(second).isEqualTo(10L);
+        assertThat(other).isEqualTo(20L);
+        assertThat(counts).hasValue(2);
+    }
+}
@@ -0,0 +1,48 @@
+package com.mrb.sw_planet_api.service.cache;
+
+import com.mrb.sw_planet_api.dto.PlanetResponse;
+import com.mrb.sw_planet_api.repository.specification.MatchMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import java.time.Duration;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SearchResultCache cache = new SearchResultCache(true, 1_000, Duration.ofMinutes(1), registry);
+    private final Page<PlanetResponse> page = new PageImpl<>(List.of(new PlanetResponse(1L, "Tatooine", "arid", "desert")));
+
+    @Test
+    @DisplayName("get() should hit for the same normalized filter and pageable")
+    void get_WithEquivalentQuery_ReturnsCachedPage() {
+        var pageable = PageRequest.of(0, 15, Sort.by("name"));
+        cache.put(cache.key("Arid ", null, MatchMode.CONTAINS, pageable, true), page);
+
+        Page<PlanetResponse> hit = cache.get(cache.key("arid", "", MatchMode.CONTAINS, pageable, true));
+        Page<PlanetResponse> otherMode = cache.get(cache.key("arid", "", MatchMode.CONTAINS, pageable, false));
+
+        assertThat(hit).isSameAs(page);
+        assertThat(otherMode).isNull();
+        assertThat(cache.hitRatio()).isEqualTo(0.5);
+        assertThat(registry.get("cache.hit.ratio").tag("cache", "planets.search").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("invalidateAll() should make pages cached before a write unreachable")
+    void invalidateAll_ShouldMoveToNewGeneration() {
+        var pageable = PageRequest.of(0, 15);
+        var before = cache.key("arid", null, MatchMode.CONTAINS, pageable, true);
+        cache.put(before, page);
+
+        cache.invalidateAll();
+
+        assertThat((Page<PlanetResponse>) cache.get(cache.key("arid", null, MatchMode.CONTAINS, pageable, true))).isNull();
+    }
+}
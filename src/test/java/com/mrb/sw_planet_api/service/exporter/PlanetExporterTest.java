@@ -0,0 +1,69 @@
+package com.mrb.sw_planet_api.service.exporter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mrb.sw_planet_api.model.Planet;
+import com.mrb.sw_planet_api.repository.PlanetRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlanetExporterTest {
+
+    @Mock
+    private PlanetRepository planetRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private PlanetExporter exporter;
+
+    @BeforeEach
+    void setup() {
+        exporter = new PlanetExporter(planetRepository, entityManager,
+                new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT), 1);
+        when(planetRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(
+                new Planet(1L, "Tatooine", "arid", "desert"),
+                new Planet(2L, "Bespin", "temperate", "gas giant, \"cloud city\"")));
+    }
+
+    @Test
+    @DisplayName("export() as NDJSON should write one compact JSON object per line and detach every row")
+    void export_AsNdjson_WritesOneObjectPerLine() throws Exception {
+        var out = new ByteArrayOutputStream();
+
+        exporter.export(ExportFormat.NDJSON, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n"))
+                .containsExactly(
+                        "{\"id\":1,\"name\":\"Tatooine\",\"climate\":\"arid\",\"terrain\":\"desert\"}",
+                        "{\"id\":2,\"name\":\"Bespin\",\"climate\":\"temperate\",\"terrain\":\"gas giant, \\\"cloud city\\\"\"}");
+        verify(entityManager, times(2)).detach(any(Planet.class));
+    }
+
+    @Test
+    @DisplayName("export() as CSV should write a header and quote fields holding separators or quotes")
+    void export_AsCsv_WritesQuotedRows() throws Exception {
+        var out = new ByteArrayOutputStream();
+
+        exporter.export(ExportFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                id,name,climate,terrain
+                1,Tatooine,arid,desert
+                2,Bespin,temperate,"gas giant, ""cloud city\"""
+                """);
+        verify(entityManager, times(2)).detach(any(Planet.class));
+    }
+}
@@ -0,0 +1,206 @@
+package com.mrb.sw_planet_api.service.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mrb.sw_planet_api.dto.BulkCreateResponse;
+import com.mrb.sw_planet_api.dto.BulkItemResult;
+import com.mrb.sw_planet_api.dto.PlanetRequest;
+import com.mrb.sw_planet_api.dto.PlanetResponse;
+import com.mrb.sw_planet_api.exception.ImportJobNotFoundException;
+import com.mrb.sw_planet_api.service.PlanetService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlanetImporterTest {
+
+    private static final int CHUNK_SIZE = 100;
+
+    @Mock
+    private PlanetService planetService;
+
+    private PlanetImporter importer;
+
+    @BeforeEach
+    void setup() {
+        importer = new PlanetImporter(planetService, new ObjectMapper(), CHUNK_SIZE, 10, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("importPlanets() should import the valid lines and report the others by line number")
+    void importPlanets_WithMixedLines_ReportsErrorsByLine() {
+        when(planetService.createAll(anyList())).thenAnswer(invocation -> {
+            List<PlanetRequest> requests = invocation.getArgument(0);
+            return BulkCreateResponse.of(IntStream.range(0, requests.size())
+                    .mapToObj(i -> requests.get(i).getName().isBlank()
+                            ? BulkItemResult.invalid(i, Map.of("name", List.of("must not be blank")))
+                            : BulkItemResult.created(i, new PlanetResponse((long) i, requests.get(i).getName(), "arid", "desert")))
+                    .toList());
+        });
+        var body = """
+                {"name":"Tatooine","climate":"arid","terrain":"desert"}
+                {"name":{"first":"Hoth"},"climate":"frozen","terrain":"ice"}
+                [1, 2]
+
+                {"name":"","climate":"murky","terrain":"swamp"}
+                {"name":"Endor","climate":"temperate","terrain":"forest"}
+                """;
+
+        ImportJob sut = importer.importPlanets(stream(body));
+
+        assertThat(sut.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        assertThat(sut.getLines().get()).isEqualTo(5);
+        assertThat(sut.getImported().get()).isEqualTo(2);
+        assertThat(sut.getFailed().get()).isEqualTo(3);
+        assertThat(sut.getErrors()).extracting(ImportJob.LineError::line).containsExactly(2L, 3L, 5L);
+        assertThat(sut.getErrors().get(2).fieldErrors()).containsKey("name");
+        verify(planetService, times(1)).createAll(anyList());
+        assertThat(importer.find(sut.getId())).isSameAs(sut);
+    }
+
+    @Test
+    @DisplayName("importPlanets() with broken JSON should fail the job and keep the chunks read before it")
+    void importPlanets_WithBrokenJson_FailsJob() {
+        when(planetService.createAll(anyList())).thenAnswer(invocation -> created(invocation.<List<PlanetRequest>>getArgument(0).size()));
+        var body = """
+                {"name":"Tatooine","climate":"arid","terrain":"desert"}
+                {"name":"Hoth","climate":"frozen",
+                """;
+
+        ImportJob sut = importer.importPlanets(stream(body));
+
+        assertThat(sut.getStatus()).isEqualTo(ImportJob.Status.FAILED);
+        assertThat(sut.getImported().get()).isEqualTo(1);
+        assertThat(sut.getMessage()).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("importPlanets() should read ahead at most one chunk however large the input is")
+    void importPlanets_WithLargeInput_KeepsMemoryBoundedToOneChunk() {
+        long totalLines = 200_000;
+        var body = new GeneratedNdjson(totalLines);
+        List<Long> bytesReadAtWrite = new ArrayList<>();
+        when(planetService.createAll(anyList())).thenAnswer(invocation -> {
+            List<PlanetRequest> chunk = invocation.getArgument(0);
+            assertThat(chunk).hasSizeLessThanOrEqualTo(CHUNK_SIZE);
+            bytesReadAtWrite.add(body.bytesRead);
+            return created(chunk.size());
+        });
+
+        ImportJob sut = importer.importPlanets(body);
+
+        assertThat(sut.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        assertThat(sut.getImported().get()).isEqualTo(totalLines);
+        assertThat(bytesReadAtWrite).hasSize((int) (totalLines / CHUNK_SIZE));
+        // between two writes the importer consumes one chunk of lines plus the parser's input buffer, never the body
+        long window = (long) CHUNK_SIZE * GeneratedNdjson.MAX_LINE_LENGTH + 16 * 1024;
+        for (int i = 1; i < bytesReadAtWrite.size(); i++) {
+            assertThat(bytesReadAtWrite.get(i) - bytesReadAtWrite.get(i - 1)).isLessThanOrEqualTo(window);
+        }
+        assertThat(bytesReadAtWrite.get(0)).isLessThanOrEqualTo(window);
+    }
+
+    @Test
+    @DisplayName("importPlanets() should fail the job when writing a chunk throws")
+    void importPlanets_WhenWriteThrows_FailsJob() {
+        when(planetService.createAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertThatThrownBy(() -> importer.importPlanets(stream("{\"name\":\"Tatooine\",\"climate\":\"arid\",\"terrain\":\"desert\"}\n")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(importer.findAll()).singleElement().satisfies(job -> {
+            assertThat(job.getStatus()).isEqualTo(ImportJob.Status.FAILED);
+            assertThat(job.getMessage()).isEqualTo("duplicate key");
+        });
+    }
+
+    @Test
+    @DisplayName("importPlanets() should keep a job past its retention while it runs and expire it after it finishes")
+    void importPlanets_RunningLongerThanRetention_KeepsJobUntilFinished() throws Exception {
+        importer = new PlanetImporter(planetService, new ObjectMapper(), CHUNK_SIZE, 10, Duration.ofMillis(100));
+        when(planetService.createAll(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            assertThat(importer.findAll()).singleElement()
+                    .extracting(ImportJob::getStatus).isEqualTo(ImportJob.Status.RUNNING);
+            return created(1);
+        });
+
+        ImportJob sut = importer.importPlanets(stream("{\"name\":\"Tatooine\",\"climate\":\"arid\",\"terrain\":\"desert\"}\n"));
+
+        assertThat(importer.find(sut.getId())).isSameAs(sut);
+        Thread.sleep(300);
+        assertThatThrownBy(() -> importer.find(sut.getId())).isInstanceOf(ImportJobNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("find() with an unknown job id should throw ImportJobNotFoundException")
+    void find_WithUnknownId_ThrowsImportJobNotFoundException() {
+        assertThatThrownBy(() -> importer.find("missing"))
+                .isInstanceOf(ImportJobNotFoundException.class);
+    }
+
+    private static BulkCreateResponse created(int count) {
+        return BulkCreateResponse.of(IntStream.range(0, count)
+                .mapToObj(i -> BulkItemResult.created(i, new PlanetResponse((long) i, "planet", "arid", "desert")))
+                .toList());
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Produces the NDJSON lines on demand, so the test itself never holds the whole body either
+    private static class GeneratedNdjson extends InputStream {
+
+        static final int MAX_LINE_LENGTH = 80;
+
+        private final long totalLines;
+        private long line;
+        private byte[] current = new byte[0];
+        private int position;
+        long bytesRead;
+
+        GeneratedNdjson(long totalLines) {
+            this.totalLines = totalLines;
+        }
+
+        @Override
+        public int read() {
+            if (position == current.length) {
+                if (line == totalLines) return -1;
+                current = ("{\"name\":\"planet-" + line++ + "\",\"climate\":\"arid\",\"terrain\":\"desert\"}\n")
+                        .getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            bytesRead++;
+            return current[position++];
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int count = 0;
+            while (count < length) {
+                int next = read();
+                if (next == -1) return count == 0 ? -1 : count;
+                buffer[offset + count++] = (byte) next;
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.mrb.sw_planet_api.service.index;
+
+import com.mrb.sw_planet_api.dto.PlanetResponse;
+import com.mrb.sw_planet_api.model.Planet;
+import com.mrb.sw_planet_api.repository.PlanetRepository;
+import com.mrb.sw_planet_api.repository.projection.PlanetFacetCount;
+import com.mrb.sw_planet_api.repository.projection.PlanetFacetView;
+import com.mrb.sw_planet_api.service.event.PlanetChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlanetFacetCountsTest {
+
+    private static final List<PlanetFacetView> PLANETS = List.of(
+            view(1L, "arid", "desert"),
+            view(2L, "arid", "desert"),
+            view(3L, "Arid, windy", "desert, rocky"),
+            view(4L, "temperate", "forest"));
+
+    @Mock
+    private PlanetRepository planetRepository;
+
+    @Test
+    @DisplayName("counts() without a filter should answer from the per-token totals built on startup")
+    void counts_WithoutFilter_ReturnsTokenTotals() {
+        var counts = built(Duration.ofHours(1));
+
+        var sut = counts.counts(null);
+
+        assertThat(sut.climate()).containsExactly(Map.entry("arid", 3L), Map.entry("temperate", 1L), Map.entry("windy", 1L));
+        assertThat(sut.terrain()).containsExactly(Map.entry("desert", 3L), Map.entry("forest", 1L), Map.entry("rocky", 1L));
+        verify(planetRepository, times(1)).findFacetsByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+        verify(planetRepository, never()).countFacets(any());
+    }
+
+    @Test
+    @DisplayName("counts() with a filter should tally the grouped rows of the filtered query")
+    void counts_WithFilter_TalliesFilteredGroups() {
+        var counts = new PlanetFacetCounts(planetRepository, Duration.ofHours(1));
+        Specification<Planet> filter = (root, query, builder) -> builder.conjunction();
+        when(planetRepository.countFacets(ArgumentMatchers.<Specification<Planet>>notNull()))
+                .thenReturn(List.of(new PlanetFacetCount("arid, windy", "desert", 2)));
+
+        var sut = counts.counts(filter);
+
+        assertThat(sut.climate()).containsExactly(Map.entry("arid", 2L), Map.entry("windy", 2L));
+        assertThat(sut.terrain()).containsExactly(Map.entry("desert", 2L));
+    }
+
+    @Test
+    @DisplayName("onPlanetChanged() should apply creates, updates and deletes as deltas even without the old row")
+    void onPlanetChanged_WithWrites_FollowsThemWithoutQuerying() {
+        var counts = built(Duration.ofHours(1));
+
+        counts.onPlanetChanged(PlanetChangedEvent.created(new PlanetResponse(5L, "Hoth", "frozen", "tundra")));
+        counts.onPlanetChanged(PlanetChangedEvent.updated(null, new PlanetResponse(3L, "Jakku", "temperate", "desert")));
+        counts.onPlanetChanged(PlanetChangedEvent.deleted(1L));
+        var sut = counts.counts(null);
+
+        assertThat(sut.climate()).containsExactly(Map.entry("temperate", 2L), Map.entry("arid", 1L), Map.entry("frozen", 1L));
+        assertThat(sut.terrain()).containsExactly(Map.entry("desert", 2L), Map.entry("forest", 1L), Map.entry("tundra", 1L));
+        verify(planetRepository, times(1)).findFacetsByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+        verify(planetRepository, never()).countFacets(any());
+    }
+
+    @Test
+    @DisplayName("rebuild() should replay the writes delivered while it scanned")
+    void rebuild_WithWriteDuringScan_ReplaysIt() {
+        var counts = new PlanetFacetCounts(planetRepository, Duration.ofHours(1));
+        when(planetRepository.findFacetsByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenAnswer(invocation -> {
+            // committed after the scan read planet 2, so the scan returns its old row
+            counts.onPlanetChanged(PlanetChangedEvent.updated(null, new PlanetResponse(2L, "Hoth", "frozen", "tundra")));
+            return PLANETS;
+        });
+
+        counts.rebuild();
+        var sut = counts.counts(null);
+
+        assertThat(sut.climate()).containsExactly(Map.entry("arid", 2L), Map.entry("frozen", 1L),
+                Map.entry("temperate", 1L), Map.entry("windy", 1L));
+        assertThat(sut.terrain()).containsEntry("desert", 2L).containsEntry("tundra", 1L);
+    }
+
+    @Test
+    @DisplayName("counts() should rebuild once the resync period has passed")
+    void counts_AfterResyncPeriod_Rebuilds() {
+        var counts = built(Duration.ZERO);
+
+        counts.counts(null);
+
+        verify(planetRepository, times(2)).findFacetsByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+    }
+
+    private PlanetFacetCounts built(Duration resync) {
+        var counts = new PlanetFacetCounts(planetRepository, resync);
+        when(planetRepository.findFacetsByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(PLANETS);
+        counts.rebuild();
+        return counts;
+    }
+
+    private static PlanetFacetView view(Long id, String climate, String terrain) {
+        return new PlanetFacetView() {
+            public Long getId() { return id; }
+            public String getClimate() { return climate; }
+            public String getTerrain() { return terrain; }
+        };
+    }
+}
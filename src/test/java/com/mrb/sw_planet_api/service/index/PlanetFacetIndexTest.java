@@ -0,0 +1,111 @@
+package com.mrb.sw_planet_api.service.index;
+
+import com.mrb.sw_planet_api.dto.PlanetResponse;
+import com.mrb.sw_planet_api.repository.PlanetRepository;
+import com.mrb.sw_planet_api.repository.projection.PlanetFacetView;
+import com.mrb.sw_planet_api.service.event.PlanetChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PlanetFacetIndexTest {
+
+    @Mock
+    private PlanetRepository planetRepository;
+
+    private PlanetFacetIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new PlanetFacetIndex(planetRepository, true);
+        when(planetRepository.findFacetsByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(
+                        view(1L, "arid", "desert"),
+                        view(2L, "Arid, windy", "desert, rocky"),
+                        view(3L, "temperate", "forest, mountains")));
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("rebuild() should load every planet and build the token dictionary")
+    void rebuild_ShouldLoadTokensAndBecomeReady() {
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.tokens(PlanetFacetIndex.Facet.CLIMATE)).containsExactlyInAnyOrder("arid", "windy", "temperate");
+    }
+
+    @Test
+    @DisplayName("match() should AND or OR tokens within a facet and AND across facets")
+    void match_WithTokens_ReturnsMatchingIds() {
+        assertThat(index.match(Set.of("arid", "windy"), Set.of(), true).stream()).containsExactly(2);
+        assertThat(index.match(Set.of("windy", "temperate"), Set.of(), false).stream()).containsExactly(2, 3);
+        assertThat(index.match(Set.of("arid"), Set.of("rocky"), false).stream()).containsExactly(2);
+        assertThat(index.match(Set.of(), Set.of(), true).stream()).containsExactly(1, 2, 3);
+        assertThat(index.match(Set.of("rid"), Set.of(), false).isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("onPlanetChanged() should keep the bitmaps current on create, update and delete")
+    void onPlanetChanged_ShouldFollowWrites() {
+        var hoth = new PlanetResponse(4L, "Hoth", "frozen", "tundra, ice caves");
+        index.onPlanetChanged(PlanetChangedEvent.created(hoth));
+        assertThat(index.match(Set.of("frozen"), Set.of("ice caves"), true).stream()).containsExactly(4);
+
+        var thawed = new PlanetResponse(4L, "Hoth", "temperate", "tundra");
+        index.onPlanetChanged(PlanetChangedEvent.updated(hoth, thawed));
+        assertThat(index.match(Set.of("frozen"), Set.of(), false).isEmpty()).isTrue();
+        assertThat(index.match(Set.of("temperate"), Set.of(), false).stream()).containsExactly(3, 4);
+
+        index.onPlanetChanged(PlanetChangedEvent.deleted(thawed));
+        assertThat(index.match(Set.of(), Set.of(), true).stream()).containsExactly(1, 2, 3);
+        assertThat(index.tokens(PlanetFacetIndex.Facet.CLIMATE)).doesNotContain("frozen");
+    }
+
+    @Test
+    @DisplayName("counts() should follow writes and narrow to the given ids")
+    void counts_ShouldFollowWritesAndNarrow() {
+        var within = new BitSet();
+        within.set(2);
+        within.set(3);
+        assertThat(index.counts(PlanetFacetIndex.Facet.CLIMATE, within)).isEqualTo(Map.of("arid", 1L, "windy", 1L, "temperate", 1L));
+
+        var dried = new PlanetResponse(3L, "Endor", "arid", "forest");
+        index.onPlanetChanged(PlanetChangedEvent.updated(new PlanetResponse(3L, "Endor", "temperate", "forest, mountains"), dried));
+        assertThat(index.counts(PlanetFacetIndex.Facet.CLIMATE, within)).isEqualTo(Map.of("arid", 2L, "windy", 1L));
+        assertThat(index.counts(PlanetFacetIndex.Facet.TERRAIN, within)).isEqualTo(Map.of("desert", 1L, "rocky", 1L, "forest", 1L));
+    }
+
+    @Test
+    @DisplayName("onPlanetChanged() with an id past the int range should stand the index down instead of throwing")
+    void onPlanetChanged_WithIdPastIntRange_StopsBeingReady() {
+        var far = new PlanetResponse((long) Integer.MAX_VALUE + 1, "Far", "arid", "desert");
+
+        index.onPlanetChanged(PlanetChangedEvent.created(far));
+        index.onPlanetChanged(PlanetChangedEvent.created(new PlanetResponse(4L, "Hoth", "frozen", "tundra")));
+
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.tokens(PlanetFacetIndex.Facet.CLIMATE)).doesNotContain("frozen");
+        index.rebuild();
+        assertThat(index.isReady()).isTrue();
+    }
+
+    private static PlanetFacetView view(Long id, String climate, String terrain) {
+        return new PlanetFacetView() {
+            public Long getId() { return id; }
+            public String getClimate() { return climate; }
+            public String getTerrain() { return terrain; }
+        };
+    }
+}
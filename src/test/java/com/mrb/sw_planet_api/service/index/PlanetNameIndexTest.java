@@ -0,0 +1,91 @@
+package com.mrb.sw_planet_api.service.index;
+
+import com.mrb.sw_planet_api.dto.PlanetResponse;
+import com.mrb.sw_planet_api.repository.PlanetRepository;
+import com.mrb.sw_planet_api.repository.projection.PlanetNameView;
+import com.mrb.sw_planet_api.service.event.PlanetChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PlanetNameIndexTest {
+
+    @Mock
+    private PlanetRepository planetRepository;
+
+    private PlanetNameIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new PlanetNameIndex(planetRepository, true);
+        when(planetRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(view(1L, "Tatooine"), view(2L, "Hoth"), view(3L, "Dagobah")));
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("rebuild() should load every planet name and mark the index ready")
+    void rebuild_ShouldLoadNamesAndBecomeReady() {
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("search() should match substrings ignoring case")
+    void search_WithSubstring_ReturnsMatchingIds() {
+        assertThat(index.search("TOOI")).containsExactly(1L);
+        assertThat(index.search("o")).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(index.search("ho")).containsExactly(2L);
+        assertThat(index.search("naboo")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("search() should not match when every trigram exists but not contiguously")
+    void search_WithScatteredTrigrams_ReturnsEmpty() {
+        // "tat" and "ine" are both in "tatooine", "tatine" is not
+        assertThat(index.search("tatine")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("search() should rank exact matches before prefix matches before substring matches")
+    void search_WithSeveralMatches_ReturnsRankedIds() {
+        index.onPlanetChanged(PlanetChangedEvent.created(new PlanetResponse(4L, "Hoth II", "frozen", "ice")));
+        index.onPlanetChanged(PlanetChangedEvent.created(new PlanetResponse(5L, "Alhoth", "frozen", "ice")));
+
+        assertThat(index.search("HOTH")).containsExactly(2L, 4L, 5L);
+    }
+
+    @Test
+    @DisplayName("onPlanetChanged() should keep the index current on create, update and delete")
+    void onPlanetChanged_ShouldFollowWrites() {
+        var naboo = new PlanetResponse(4L, "Naboo", "temperate", "plains");
+        index.onPlanetChanged(PlanetChangedEvent.created(naboo));
+        assertThat(index.search("nab")).containsExactly(4L);
+
+        var renamed = new PlanetResponse(4L, "Kamino", "temperate", "ocean");
+        index.onPlanetChanged(PlanetChangedEvent.updated(naboo, renamed));
+        assertThat(index.search("nab")).isEmpty();
+        assertThat(index.search("kami")).containsExactly(4L);
+
+        index.onPlanetChanged(PlanetChangedEvent.deleted(renamed));
+        assertThat(index.search("kami")).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    private static PlanetNameView view(Long id, String name) {
+        return new PlanetNameView() {
+            public Long getId() { return id; }
+            public String getName() { return name; }
+        };
+    }
+}
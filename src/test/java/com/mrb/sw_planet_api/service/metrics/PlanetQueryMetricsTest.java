@@ -0,0 +1,38 @@
+package com.mrb.sw_planet_api.service.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlanetQueryMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PlanetQueryMetrics metrics = new PlanetQueryMetrics(registry);
+
+    @Test
+    @DisplayName("data() should time the read under phase=data and record the rows it returned")
+    void data_WithSlice_TimesReadAndRecordsRows() {
+        var slice = new SliceImpl<>(List.of("Tatooine", "Hoth"), PageRequest.of(0, 2), true);
+
+        var result = metrics.data("search", () -> slice);
+
+        assertThat(result).isSameAs(slice);
+        assertThat(registry.get("planets.query").tags("query", "search", "phase", "data").timer().count()).isEqualTo(1);
+        assertThat(registry.get("planets.rows").tag("query", "search").summary().totalAmount()).isEqualTo(2.0);
+        assertThat(registry.find("planets.query").tags("phase", "count").timer()).isNull();
+    }
+
+    @Test
+    @DisplayName("count() should time the count under phase=count without recording rows")
+    void count_TimesCountSeparately() {
+        long total = metrics.count("matches", () -> 42L);
+
+        assertThat(total).isEqualTo(42);
+        assertThat(registry.get("planets.query").tags("query", "matches", "phase", "count").timer().count()).isEqualTo(1);
+        assertThat(registry.find("planets.rows").summary()).isNull();
+    }
+}